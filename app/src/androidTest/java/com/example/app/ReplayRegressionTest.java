@@ -0,0 +1,276 @@
+// ReplayRegressionTest.java (in app/src/androidTest/java/com/example/app/)
+package com.example.app;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+
+import android.content.Context;
+import android.content.res.AssetManager;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.text.TextUtils;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a corpus of recorded sessions through the record->transcribe pipeline on a device and
+ * fails if any session exceeds its latency or transcript budget.
+ *
+ * Sessions are .wav/.pcm files (e.g. saved with the debug-only record_sessions extra) taken from
+ * src/androidTest/assets/regression/, or from a device folder passed as -e corpusDir. A session
+ * can have a sidecar &lt;name&gt;.json overriding the defaults:
+ * {"expectedText": "buy milk", "maxLatencyMs": 2500, "maxWordErrorRate": 0.2}
+ * Sessions without expectedText only get their latency checked. Defaults can be overridden with
+ * -e maxLatencyMs, -e maxWordErrorRate and -e replaySpeed (0, the default, is unpaced).
+ * A regression-report.json with every measurement is written to the app's external files dir.
+ *
+ * ./gradlew connectedAndroidTest -Pandroid.testInstrumentationRunnerArguments.corpusDir=/data/local/tmp/regression
+ */
+@RunWith(AndroidJUnit4.class)
+public class ReplayRegressionTest {
+    private static final String TAG = "ReplayRegression";
+    private static final String CORPUS_ASSET_DIR = "regression";
+    private static final String REPORT_FILE = "regression-report.json";
+    private static final long DEFAULT_MAX_LATENCY_MS = 3000;
+    private static final double DEFAULT_MAX_WORD_ERROR_RATE = 0.25;
+    private static final long TIMEOUT_MS = 120_000;
+
+    /**
+     * Budgets for one session, as read from its sidecar JSON.
+     */
+    static class Expectation {
+        String expectedText;
+        Long maxLatencyMs;
+        Double maxWordErrorRate;
+    }
+
+    /**
+     * Measurements and verdict for one session; serialized into the report.
+     */
+    static class SessionResult {
+        String session;
+        double audioSeconds;
+        long captureMs;      // Time to pull the session through the AudioSource
+        long transcribeMs;   // End of capture -> transcript, what the user waits for
+        String transcript;
+        String expectedText;
+        double wordErrorRate = -1; // -1 when there is no expected text
+        long maxLatencyMs;
+        double maxWordErrorRate;
+        String failure;      // Null when the session passed
+    }
+
+    private Context targetContext;
+    private Bundle arguments;
+    private WhisperWrapper whisperWrapper;
+
+    @Before
+    public void setUp() throws Exception {
+        targetContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        arguments = InstrumentationRegistry.getArguments();
+
+        // Same model the app ships, copied out of its assets like MainActivity does.
+        File modelFile = new File(targetContext.getFilesDir(), MainActivity.WHISPER_MODEL_ASSET);
+        if (!modelFile.exists()) {
+            copyAsset(targetContext.getAssets(), MainActivity.WHISPER_MODEL_ASSET, modelFile);
+        }
+        whisperWrapper = new WhisperWrapper(targetContext);
+        awaitCallback(callback -> whisperWrapper.initialize(modelFile.getAbsolutePath(), "en", callback));
+    }
+
+    @After
+    public void tearDown() {
+        if (whisperWrapper != null) {
+            whisperWrapper.release();
+        }
+    }
+
+    @Test
+    public void replayedSessionsStayWithinBudgets() throws Exception {
+        List<File> sessions = findSessions();
+        assumeFalse("No regression sessions: add them under src/androidTest/assets/" + CORPUS_ASSET_DIR
+                + " or pass -e corpusDir", sessions.isEmpty());
+
+        // The first decode pays for cold caches; keep it out of the measurements.
+        transcribeBlocking(new short[MainActivity.SAMPLE_RATE]);
+
+        List<SessionResult> results = new ArrayList<>();
+        List<String> failures = new ArrayList<>();
+        for (File session : sessions) {
+            SessionResult result = runSession(session);
+            results.add(result);
+            Log.d(TAG, (result.failure == null ? "PASS " : "FAIL ") + result.session
+                    + String.format(Locale.US, " capture=%dms transcribe=%dms wer=%.2f",
+                    result.captureMs, result.transcribeMs, result.wordErrorRate)
+                    + (result.failure == null ? "" : " (" + result.failure + ")"));
+            if (result.failure != null) {
+                failures.add(result.session + ": " + result.failure);
+            }
+        }
+        writeReport(results);
+
+        assertTrue(failures.size() + " of " + sessions.size() + " sessions over budget:\n"
+                + TextUtils.join("\n", failures), failures.isEmpty());
+    }
+
+    private SessionResult runSession(File session) throws Exception {
+        Expectation expectation = readExpectation(session);
+        SessionResult result = new SessionResult();
+        result.session = session.getName();
+        result.expectedText = expectation.expectedText;
+        result.maxLatencyMs = expectation.maxLatencyMs != null ? expectation.maxLatencyMs
+                : Long.parseLong(arguments.getString("maxLatencyMs", String.valueOf(DEFAULT_MAX_LATENCY_MS)));
+        result.maxWordErrorRate = expectation.maxWordErrorRate != null ? expectation.maxWordErrorRate
+                : Double.parseDouble(arguments.getString("maxWordErrorRate", String.valueOf(DEFAULT_MAX_WORD_ERROR_RATE)));
+
+        // Same path as the live pipeline: AudioSource.capture (with its duration cap) -> WhisperWrapper.
+        float replaySpeed = Float.parseFloat(arguments.getString("replaySpeed", "0"));
+        ReplayAudioSource source = new ReplayAudioSource(session, replaySpeed);
+        long captureStart = SystemClock.elapsedRealtime();
+        short[] samples;
+        try {
+            source.start();
+            samples = source.capture(MainActivity.MAX_RECORDING_SAMPLES);
+        } finally {
+            source.release();
+        }
+        long captureEnd = SystemClock.elapsedRealtime();
+        result.captureMs = captureEnd - captureStart;
+        result.audioSeconds = (double) samples.length / MainActivity.SAMPLE_RATE;
+
+        result.transcript = transcribeBlocking(samples).trim();
+        result.transcribeMs = SystemClock.elapsedRealtime() - captureEnd;
+
+        List<String> failures = new ArrayList<>();
+        if (result.transcribeMs > result.maxLatencyMs) {
+            failures.add("latency " + result.transcribeMs + "ms > " + result.maxLatencyMs + "ms");
+        }
+        if (result.expectedText != null) {
+            result.wordErrorRate = WordErrorRate.of(result.expectedText, result.transcript);
+            if (result.wordErrorRate > result.maxWordErrorRate) {
+                failures.add(String.format(Locale.US, "WER %.2f > %.2f, got \"%s\"",
+                        result.wordErrorRate, result.maxWordErrorRate, result.transcript));
+            }
+        }
+        result.failure = failures.isEmpty() ? null : TextUtils.join("; ", failures);
+        return result;
+    }
+
+    // Sessions from -e corpusDir if given, otherwise from the test APK's assets (copied out so they can be mapped).
+    private List<File> findSessions() throws IOException {
+        File corpusDir;
+        String corpusArg = arguments.getString("corpusDir");
+        if (corpusArg != null) {
+            corpusDir = new File(corpusArg);
+        } else {
+            corpusDir = new File(targetContext.getCacheDir(), CORPUS_ASSET_DIR);
+            corpusDir.mkdirs();
+            AssetManager testAssets = InstrumentationRegistry.getInstrumentation().getContext().getAssets();
+            String[] names = testAssets.list(CORPUS_ASSET_DIR);
+            for (String name : names != null ? names : new String[0]) {
+                copyAsset(testAssets, CORPUS_ASSET_DIR + "/" + name, new File(corpusDir, name));
+            }
+        }
+
+        File[] found = corpusDir.listFiles((dir, name) ->
+                name.toLowerCase().endsWith(".wav") || name.toLowerCase().endsWith(".pcm"));
+        List<File> sessions = new ArrayList<>(Arrays.asList(found != null ? found : new File[0]));
+        Collections.sort(sessions);
+        return sessions;
+    }
+
+    private Expectation readExpectation(File session) throws IOException {
+        String name = session.getName();
+        File sidecar = new File(session.getParentFile(), name.substring(0, name.lastIndexOf('.')) + ".json");
+        if (!sidecar.exists()) {
+            return new Expectation();
+        }
+        try (Reader reader = new InputStreamReader(new FileInputStream(sidecar), StandardCharsets.UTF_8)) {
+            Expectation expectation = new Gson().fromJson(reader, Expectation.class);
+            return expectation != null ? expectation : new Expectation();
+        }
+    }
+
+    private void writeReport(List<SessionResult> results) throws IOException {
+        File dir = targetContext.getExternalFilesDir(null);
+        File file = new File(dir != null ? dir : targetContext.getFilesDir(), REPORT_FILE);
+        try (OutputStream os = new FileOutputStream(file)) {
+            Gson gson = new GsonBuilder().setPrettyPrinting().create();
+            os.write(gson.toJson(results).getBytes(StandardCharsets.UTF_8));
+        }
+        Log.d(TAG, "Report written to " + file.getAbsolutePath());
+    }
+
+    private String transcribeBlocking(short[] samples) throws Exception {
+        return awaitCallback(callback -> whisperWrapper.transcribe(samples, callback));
+    }
+
+    private interface WhisperCall {
+        void start(WhisperTranscriptionCallback callback);
+    }
+
+    // Runs an async WhisperWrapper call and waits for its result, rethrowing its error.
+    private static String awaitCallback(WhisperCall call) throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        String[] text = new String[1];
+        Exception[] error = new Exception[1];
+        call.start(new WhisperTranscriptionCallback() {
+            @Override
+            public void onResult(String result) {
+                text[0] = result;
+                done.countDown();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                error[0] = e;
+                done.countDown();
+            }
+        });
+        if (!done.await(TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("Whisper call timed out after " + TIMEOUT_MS + "ms.");
+        }
+        if (error[0] != null) {
+            throw error[0];
+        }
+        return text[0] != null ? text[0] : "";
+    }
+
+    private static void copyAsset(AssetManager assets, String assetName, File dest) throws IOException {
+        try (InputStream is = assets.open(assetName);
+             OutputStream os = new FileOutputStream(dest)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                os.write(buffer, 0, read);
+            }
+        }
+    }
+}
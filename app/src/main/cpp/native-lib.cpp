@@ -15,10 +15,8 @@
 #define  LOGD(...)  __android_log_print(ANDROID_LOG_DEBUG, LOG_TAG, __VA_ARGS__)
 #define  LOGE(...)  __android_log_print(ANDROID_LOG_ERROR, LOG_TAG, __VA_ARGS__)
 
-// Global context for whisper (handles model and state)
-// IMPORTANT: Use a mutex for thread safety if accessing from multiple threads,
-// though for this app's single-threaded audio processing, it might be less critical.
-whisper_context * g_ctx = nullptr;
+// There is no global context: several may be alive at once (e.g. one per batch decoder).
+// Each WhisperWrapper owns and frees its own pointer, and a context must only be used from one thread.
 
 // Function to convert jstring to std::string
 std::string jstring2string(JNIEnv *env, jstring jStr) {
@@ -43,12 +41,6 @@ Java_com_example_app_WhisperWrapper_initContext(
     jstring modelPath,
     jstring language
 ) {
-    if (g_ctx != nullptr) {
-        LOGD("Whisper context already initialized. Freeing old context.");
-        whisper_free(g_ctx); // Free existing context before creating a new one
-        g_ctx = nullptr;
-    }
-
     std::string modelPathStr = jstring2string(env, modelPath);
     std::string languageStr = jstring2string(env, language);
 
@@ -59,31 +51,23 @@ Java_com_example_app_WhisperWrapper_initContext(
     // Removed: cparams.n_threads = std::thread::hardware_concurrency(); // This member does not exist here
     // You can set other context params here if needed, e.g., no_gpu, etc.
 
-    g_ctx = whisper_init_from_file_with_params(modelPathStr.c_str(), cparams);
+    whisper_context * ctx = whisper_init_from_file_with_params(modelPathStr.c_str(), cparams);
 
-    if (g_ctx == nullptr) {
+    if (ctx == nullptr) {
         LOGE("Failed to initialize whisper context from file: %s", modelPathStr.c_str());
         return 0; // Return 0 to indicate failure
     }
 
     LOGD("Whisper context initialized successfully.");
-    return (jlong)g_ctx; // Return pointer to context
+    return (jlong)ctx; // Return pointer to context
 }
 
-// JNI function to transcribe audio
-extern "C" JNIEXPORT jstring JNICALL
-Java_com_example_app_WhisperWrapper_fullTranscribe(
-    JNIEnv *env,
-    jobject /* this */,
-    jlong contextPtr,
-    jfloatArray audioData
-) {
-    whisper_context * ctx = (whisper_context *)contextPtr;
-    if (ctx == nullptr) {
-        LOGE("Whisper context is null. Cannot transcribe.");
-        return env->NewStringUTF("");
-    }
-
+// Runs whisper_full over a Java float array. Shared by the plain-text and the structured
+// transcription entry points; the caller reads the segments back out of ctx afterwards.
+// nThreads <= 0 uses all available cores. keepContext conditions the decoder on the text of the
+// previous whisper_full call on this ctx; only pass true when the audio continues that call's.
+static bool runWhisperFull(JNIEnv *env, whisper_context * ctx, jfloatArray audioData, int nThreads,
+                           bool keepContext, bool tokenTimestamps) {
     // Convert Java float array to C++ std::vector<float>
     jfloat *audioFloats = env->GetFloatArrayElements(audioData, nullptr);
     jsize audioLength = env->GetArrayLength(audioData);
@@ -99,8 +83,10 @@ Java_com_example_app_WhisperWrapper_fullTranscribe(
     params.print_realtime = false;
     params.print_timestamps = false;
     params.print_special = false;
-    params.no_context = false; // Set to false to allow for stateful context if desired. For short phrases, might be true.
-    params.n_threads = std::thread::hardware_concurrency(); // Use all available cores for transcription
+    params.no_context = !keepContext; // Otherwise the prompt carries over from unrelated audio (e.g. the previous memo)
+    // Use all available cores unless the caller shares them between several contexts
+    params.n_threads = nThreads > 0 ? nThreads : (int) std::thread::hardware_concurrency();
+    params.token_timestamps = tokenTimestamps; // Per-token t0/t1, only needed by the structured path
 
     // If you explicitly set a language during init, you can set it here too
     // For automatic language detection, set to "auto" or leave blank.
@@ -108,6 +94,28 @@ Java_com_example_app_WhisperWrapper_fullTranscribe(
 
     if (whisper_full(ctx, params, pcmf32.data(), pcmf32.size()) != 0) {
         LOGE("Failed to run whisper transcription.");
+        return false;
+    }
+    return true;
+}
+
+// JNI function to transcribe audio
+extern "C" JNIEXPORT jstring JNICALL
+Java_com_example_app_WhisperWrapper_fullTranscribe(
+    JNIEnv *env,
+    jobject /* this */,
+    jlong contextPtr,
+    jfloatArray audioData,
+    jint nThreads,
+    jboolean keepContext
+) {
+    whisper_context * ctx = (whisper_context *)contextPtr;
+    if (ctx == nullptr) {
+        LOGE("Whisper context is null. Cannot transcribe.");
+        return env->NewStringUTF("");
+    }
+
+    if (!runWhisperFull(env, ctx, audioData, nThreads, keepContext == JNI_TRUE, false)) {
         return env->NewStringUTF("");
     }
 
@@ -126,6 +134,130 @@ Java_com_example_app_WhisperWrapper_fullTranscribe(
     return env->NewStringUTF(result.c_str());
 }
 
+// Helpers to copy a std::vector into a freshly allocated Java primitive array (one JNI call each).
+static jbyteArray toJByteArray(JNIEnv *env, const std::string &bytes) {
+    jbyteArray arr = env->NewByteArray((jsize) bytes.size());
+    env->SetByteArrayRegion(arr, 0, (jsize) bytes.size(), (const jbyte *) bytes.data());
+    return arr;
+}
+
+static jintArray toJIntArray(JNIEnv *env, const std::vector<jint> &values) {
+    jintArray arr = env->NewIntArray((jsize) values.size());
+    env->SetIntArrayRegion(arr, 0, (jsize) values.size(), values.data());
+    return arr;
+}
+
+static jlongArray toJLongArray(JNIEnv *env, const std::vector<jlong> &values) {
+    jlongArray arr = env->NewLongArray((jsize) values.size());
+    env->SetLongArrayRegion(arr, 0, (jsize) values.size(), values.data());
+    return arr;
+}
+
+static jfloatArray toJFloatArray(JNIEnv *env, const std::vector<jfloat> &values) {
+    jfloatArray arr = env->NewFloatArray((jsize) values.size());
+    env->SetFloatArrayRegion(arr, 0, (jsize) values.size(), values.data());
+    return arr;
+}
+
+// JNI function to transcribe audio and return segments, timestamps and token probabilities.
+// Everything is packed into flat primitive arrays (offset tables + values) so the whole result
+// costs one Java object plus a handful of arrays, no matter how many segments/tokens there are.
+// whisper.cpp reports times in 10 ms units; they are converted to milliseconds here.
+extern "C" JNIEXPORT jobject JNICALL
+Java_com_example_app_WhisperWrapper_fullTranscribeDetailed(
+    JNIEnv *env,
+    jobject /* this */,
+    jlong contextPtr,
+    jfloatArray audioData,
+    jint nThreads
+) {
+    whisper_context * ctx = (whisper_context *)contextPtr;
+    if (ctx == nullptr) {
+        LOGE("Whisper context is null. Cannot transcribe.");
+        return nullptr;
+    }
+
+    if (!runWhisperFull(env, ctx, audioData, nThreads, true, true)) {
+        return nullptr;
+    }
+
+    const int n_segments = whisper_full_n_segments(ctx);
+    const whisper_token token_eot = whisper_token_eot(ctx);
+
+    std::string segmentText;
+    std::vector<jint> segmentTextOffsets;
+    std::vector<jlong> segmentTimes; // t0,t1 pairs
+    std::vector<jint> segmentTokenOffsets;
+    std::string tokenText;
+    std::vector<jint> tokenTextOffsets;
+    std::vector<jint> tokenIds;
+    std::vector<jfloat> tokenProbs;
+    std::vector<jlong> tokenTimes; // t0,t1 pairs
+
+    segmentTextOffsets.reserve(n_segments + 1);
+    segmentTimes.reserve(n_segments * 2);
+    segmentTokenOffsets.reserve(n_segments + 1);
+    tokenTextOffsets.push_back(0);
+
+    for (int i = 0; i < n_segments; ++i) {
+        segmentTextOffsets.push_back((jint) segmentText.size());
+        segmentTokenOffsets.push_back((jint) tokenIds.size());
+
+        const char * text = whisper_full_get_segment_text(ctx, i);
+        if (text) {
+            segmentText += text;
+        }
+        segmentTimes.push_back((jlong) whisper_full_get_segment_t0(ctx, i) * 10);
+        segmentTimes.push_back((jlong) whisper_full_get_segment_t1(ctx, i) * 10);
+
+        const int n_tokens = whisper_full_n_tokens(ctx, i);
+        for (int j = 0; j < n_tokens; ++j) {
+            whisper_token_data data = whisper_full_get_token_data(ctx, i, j);
+            if (data.id >= token_eot) {
+                continue; // Skip special tokens ([_BEG_], timestamps, etc.)
+            }
+            const char * piece = whisper_full_get_token_text(ctx, i, j);
+            if (piece) {
+                tokenText += piece;
+            }
+            tokenTextOffsets.push_back((jint) tokenText.size());
+            tokenIds.push_back((jint) data.id);
+            tokenProbs.push_back(data.p);
+            tokenTimes.push_back((jlong) data.t0 * 10);
+            tokenTimes.push_back((jlong) data.t1 * 10);
+        }
+    }
+    segmentTextOffsets.push_back((jint) segmentText.size());
+    segmentTokenOffsets.push_back((jint) tokenIds.size());
+
+    jclass resultClass = env->FindClass("com/example/app/TranscriptionResult");
+    if (resultClass == nullptr) {
+        LOGE("TranscriptionResult class not found.");
+        return nullptr;
+    }
+    jmethodID ctor = env->GetMethodID(resultClass, "<init>", "([B[I[J[I[B[I[I[F[J)V");
+    if (ctor == nullptr) {
+        LOGE("TranscriptionResult constructor not found.");
+        env->DeleteLocalRef(resultClass);
+        return nullptr;
+    }
+
+    jobject result = env->NewObject(resultClass, ctor,
+            toJByteArray(env, segmentText),
+            toJIntArray(env, segmentTextOffsets),
+            toJLongArray(env, segmentTimes),
+            toJIntArray(env, segmentTokenOffsets),
+            toJByteArray(env, tokenText),
+            toJIntArray(env, tokenTextOffsets),
+            toJIntArray(env, tokenIds),
+            toJFloatArray(env, tokenProbs),
+            toJLongArray(env, tokenTimes));
+    env->DeleteLocalRef(resultClass);
+
+    LOGD("Structured transcription complete: %d segments, %zu tokens.", n_segments, tokenIds.size());
+    return result;
+}
+
 // JNI function to free the Whisper context
 extern "C" JNIEXPORT void JNICALL
 Java_com_example_app_WhisperWrapper_freeContext(
@@ -137,8 +269,5 @@ Java_com_example_app_WhisperWrapper_freeContext(
     if (ctx != nullptr) {
         LOGD("Freeing whisper context.");
         whisper_free(ctx);
-        if (ctx == g_ctx) { // Clear global if it's the one we're freeing
-            g_ctx = nullptr;
-        }
     }
 }
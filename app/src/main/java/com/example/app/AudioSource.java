@@ -0,0 +1,61 @@
+// AudioSource.java (in app/src/main/java/com/example/app/)
+package com.example.app;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A source of 16-bit mono PCM audio for the record->transcribe pipeline.
+ *
+ * Lets the pipeline read from the microphone ({@link MicAudioSource}), from a recorded
+ * session file ({@link ReplayAudioSource}), or from either while saving it to disk
+ * ({@link SessionRecorder}).
+ */
+public interface AudioSource {
+    int getSampleRate();
+
+    /**
+     * Starts delivering audio.
+     * @throws IOException If the source can't be opened.
+     */
+    void start() throws IOException;
+
+    /**
+     * Blocking read, same contract as AudioRecord.read.
+     * @return Number of samples read, 0 at end of stream, or a negative AudioRecord error code.
+     */
+    int read(short[] buffer, int offset, int length);
+
+    /**
+     * Stops the source and frees its resources. Safe to call more than once.
+     */
+    void release();
+
+    /**
+     * Reads until the buffer is full, the source ends or an error occurs.
+     * Reads in 100ms chunks so replayed sources are paced like the microphone.
+     * @return Number of samples read.
+     */
+    default int readFully(short[] buffer) {
+        int chunk = Math.max(1, getSampleRate() / 10);
+        int samplesRead = 0;
+        while (samplesRead < buffer.length) {
+            int result = read(buffer, samplesRead, Math.min(chunk, buffer.length - samplesRead));
+            if (result <= 0) {
+                break; // End of stream, or an error the source has already logged
+            }
+            samplesRead += result;
+        }
+        return samplesRead;
+    }
+
+    /**
+     * The capture step of the record->transcribe pipeline: reads up to maxSamples, or until the
+     * source ends, into an array sized to what was actually read.
+     */
+    default short[] capture(int maxSamples) {
+        short[] buffer = new short[maxSamples];
+        int samplesRead = readFully(buffer);
+        return samplesRead == maxSamples ? buffer : Arrays.copyOf(buffer, samplesRead);
+    }
+}
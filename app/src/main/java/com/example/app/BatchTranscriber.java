@@ -0,0 +1,365 @@
+// BatchTranscriber.java (in app/src/main/java/com/example/app/)
+package com.example.app;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+
+/**
+ * Listener for batch transcription progress and results.
+ * Called from a background thread; post to the UI thread as needed.
+ */
+interface BatchTranscriptionListener {
+    /**
+     * @param file The file currently being transcribed.
+     * @param fileProgress Fraction (0..1) of that file transcribed so far.
+     * @param batchProgress Fraction (0..1) of the whole batch transcribed so far.
+     * @param audioSecondsPerWallSecond Throughput of the batch so far.
+     */
+    void onProgress(File file, float fileProgress, float batchProgress, double audioSecondsPerWallSecond);
+    void onFileTranscribed(File file, String text);
+    void onFileError(File file, Exception e);
+    void onBatchComplete(BatchTranscriber.Stats stats);
+}
+
+/**
+ * Transcribes imported WAV/PCM files in bulk on top of one or more {@link WhisperWrapper}s.
+ *
+ * Files are memory-mapped with {@link PcmFileReader} and fed to Whisper in windows of up to
+ * 30s, so only one window per decoder is ever held on the heap. Each window ends at the
+ * quietest point of its last two seconds, so words aren't split at the seams. Each decoder
+ * context pulls the next file from a shared queue as soon as it finishes its current one.
+ */
+public class BatchTranscriber {
+    private static final String TAG = "BatchTranscriber";
+
+    // Whisper works on 30s chunks internally; larger windows gain nothing.
+    public static final int WINDOW_SECONDS = 30;
+    private static final int WINDOW_SAMPLES = PcmFileReader.TARGET_SAMPLE_RATE * WINDOW_SECONDS;
+    // Windows are cut at the lowest-energy 20ms frame within this tail of the window.
+    private static final int SEAM_SEARCH_SAMPLES = PcmFileReader.TARGET_SAMPLE_RATE * 2;
+    private static final int ENERGY_FRAME_SAMPLES = PcmFileReader.TARGET_SAMPLE_RATE / 50;
+    // whisper.cpp returns no segments for input under 1s ("input is too short"), so no window
+    // may be shorter: cuts leave at least this much behind, and short files are padded.
+    static final int MIN_WINDOW_SAMPLES = PcmFileReader.TARGET_SAMPLE_RATE;
+
+    /**
+     * Summary of a finished batch.
+     */
+    public static class Stats {
+        public final int filesTranscribed;
+        public final int filesFailed;
+        public final double audioSeconds;
+        public final double wallSeconds;
+
+        Stats(int filesTranscribed, int filesFailed, double audioSeconds, double wallSeconds) {
+            this.filesTranscribed = filesTranscribed;
+            this.filesFailed = filesFailed;
+            this.audioSeconds = audioSeconds;
+            this.wallSeconds = wallSeconds;
+        }
+
+        /** Audio-seconds transcribed per wall-clock second (above 1.0 is faster than real time). */
+        public double getThroughput() {
+            return wallSeconds > 0 ? audioSeconds / wallSeconds : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%d files (%d failed), %.1fs audio in %.1fs (%.2fx real time)",
+                    filesTranscribed, filesFailed, audioSeconds, wallSeconds, getThroughput());
+        }
+    }
+
+    private final List<WhisperWrapper> decoders;
+    private final ExecutorService schedulerExecutor; // Reads windows from disk and hands them to decoders
+    private final Set<Batch> activeBatches = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    /**
+     * @param decoders Initialized Whisper contexts to spread the files across.
+     */
+    public BatchTranscriber(List<WhisperWrapper> decoders) {
+        if (decoders.isEmpty()) {
+            throw new IllegalArgumentException("At least one decoder is required.");
+        }
+        this.decoders = new ArrayList<>(decoders);
+        this.schedulerExecutor = Executors.newSingleThreadExecutor();
+    }
+
+    /**
+     * Transcribes the given files in the background, one transcript per file.
+     * @param files WAV or raw 16kHz 16-bit mono PCM files.
+     * @param listener Receives progress, per-file results and the final stats.
+     */
+    public void transcribe(List<File> files, BatchTranscriptionListener listener) {
+        Batch batch = new Batch(files, listener);
+        activeBatches.add(batch);
+        schedulerExecutor.execute(() -> {
+            if (batch.cancelled) {
+                return;
+            }
+            if (files.isEmpty()) {
+                activeBatches.remove(batch);
+                listener.onBatchComplete(batch.stats());
+                return;
+            }
+            int active = Math.min(decoders.size(), files.size());
+            batch.activeDecoders = active;
+            for (int i = 0; i < active; i++) {
+                startNextFile(batch, decoders.get(i));
+            }
+        });
+    }
+
+    /**
+     * Cancels running batches and stops the scheduler. Windows already handed to a decoder still
+     * finish, but their results are dropped and no further listener calls are made.
+     * Decoders are owned by the caller and are not released.
+     */
+    public void release() {
+        for (Batch batch : activeBatches) {
+            batch.cancelled = true;
+        }
+        activeBatches.clear();
+        schedulerExecutor.shutdownNow();
+    }
+
+    // All methods below run on schedulerExecutor, so Batch needs no locking.
+
+    private void startNextFile(Batch batch, WhisperWrapper decoder) {
+        while (true) {
+            Integer index = batch.queue.poll();
+            if (index == null) {
+                if (--batch.activeDecoders == 0) {
+                    activeBatches.remove(batch);
+                    Stats stats = batch.stats();
+                    Log.d(TAG, "Batch complete: " + stats);
+                    batch.listener.onBatchComplete(stats);
+                }
+                return;
+            }
+
+            File file = batch.files.get(index);
+            try {
+                FileJob job = new FileJob(index, PcmFileReader.open(file));
+                Log.d(TAG, "Transcribing " + file.getName() + " (" + job.reader.getDurationSeconds() + "s, "
+                        + job.reader.getSourceSampleRate() + "Hz, " + job.reader.getSourceChannels() + "ch)");
+                transcribeWindow(batch, decoder, job);
+                return;
+            } catch (IOException | RuntimeException e) {
+                // One bad memo must not take down the batch (or the scheduler thread).
+                Log.e(TAG, "Could not open " + file.getName() + ": " + e.getMessage(), e);
+                failFile(batch, index, file, e);
+            }
+        }
+    }
+
+    private void transcribeWindow(Batch batch, WhisperWrapper decoder, FileJob job) {
+        if (batch.cancelled) {
+            return;
+        }
+        float[] window;
+        try {
+            window = readWindow(job.reader, job.position);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Could not read " + job.reader.getFile().getName() + ": " + e.getMessage(), e);
+            failFile(batch, job.index, job.reader.getFile(), e);
+            startNextFile(batch, decoder);
+            return;
+        }
+        int read = window.length;
+        if (read == 0) {
+            finishFile(batch, decoder, job);
+            return;
+        }
+
+        WhisperTranscriptionCallback callback = new WhisperTranscriptionCallback() {
+            @Override
+            public void onResult(String result) {
+                runOnScheduler(batch, () -> {
+                    job.text.append(result);
+                    job.position += read;
+                    batch.audioSeconds += (double) read / PcmFileReader.TARGET_SAMPLE_RATE;
+
+                    float fileProgress = (float) job.position / Math.max(1, job.reader.getSampleCount());
+                    batch.fileProgress[job.index] = fileProgress;
+                    batch.listener.onProgress(job.reader.getFile(), fileProgress, batch.progress(), batch.throughput());
+
+                    if (job.position < job.reader.getSampleCount()) {
+                        transcribeWindow(batch, decoder, job);
+                    } else {
+                        finishFile(batch, decoder, job);
+                    }
+                });
+            }
+
+            @Override
+            public void onError(Exception e) {
+                runOnScheduler(batch, () -> {
+                    failFile(batch, job.index, job.reader.getFile(), e);
+                    startNextFile(batch, decoder);
+                });
+            }
+        };
+        try {
+            // Decoders are reused across files; only carry the prompt over between windows of one file.
+            decoder.transcribe(padToMinimum(window), job.position > 0, callback);
+        } catch (RejectedExecutionException e) {
+            // The caller released the decoders while this batch was being cancelled.
+            Log.d(TAG, "Decoder released, dropping window of " + job.reader.getFile().getName());
+        }
+    }
+
+    /**
+     * Hands a decoder callback back to the scheduler thread. Decoders run on their own threads,
+     * so a window queued before release() can finish afterwards; its result is dropped here
+     * instead of throwing from the decoder thread.
+     */
+    private void runOnScheduler(Batch batch, Runnable task) {
+        if (batch.cancelled) {
+            return;
+        }
+        try {
+            schedulerExecutor.execute(() -> {
+                if (!batch.cancelled) {
+                    task.run();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Log.d(TAG, "Scheduler released, dropping late decoder result.");
+        }
+    }
+
+    /**
+     * Reads the next window of a file starting at position. Unless the rest of the file fits,
+     * the window is shortened to end at the quietest point of its last two seconds, but never
+     * so far that less than {@link #MIN_WINDOW_SAMPLES} would be left for the next window.
+     */
+    static float[] readWindow(PcmFileReader reader, long position) {
+        long remaining = reader.getSampleCount() - position;
+        if (remaining <= WINDOW_SAMPLES) {
+            float[] window = new float[(int) Math.max(0, remaining)];
+            int read = reader.read(window, position);
+            return read == window.length ? window : Arrays.copyOf(window, read);
+        }
+
+        int tailStart = WINDOW_SAMPLES - SEAM_SEARCH_SAMPLES;
+        // Only search where the cut leaves a decodable remainder (always over 1s of the tail).
+        int searchLength = (int) Math.min(SEAM_SEARCH_SAMPLES, remaining - MIN_WINDOW_SAMPLES - tailStart);
+        float[] tail = new float[searchLength];
+        int tailRead = reader.read(tail, position + tailStart);
+        float[] window = new float[tailStart + findQuietestPoint(tail, tailRead)];
+        reader.read(window, position);
+        return window;
+    }
+
+    /**
+     * Pads a window shorter than {@link #MIN_WINDOW_SAMPLES} with trailing silence so
+     * whisper.cpp transcribes it instead of skipping it.
+     */
+    static float[] padToMinimum(float[] window) {
+        return window.length < MIN_WINDOW_SAMPLES ? Arrays.copyOf(window, MIN_WINDOW_SAMPLES) : window;
+    }
+
+    /**
+     * Offset of the middle of the lowest-energy 20ms frame among the first length samples,
+     * or length if they are shorter than one frame.
+     */
+    static int findQuietestPoint(float[] samples, int length) {
+        int best = length;
+        double bestEnergy = Double.MAX_VALUE;
+        for (int start = 0; start + ENERGY_FRAME_SAMPLES <= length; start += ENERGY_FRAME_SAMPLES) {
+            double energy = 0;
+            for (int i = start; i < start + ENERGY_FRAME_SAMPLES; i++) {
+                energy += samples[i] * samples[i];
+            }
+            if (energy < bestEnergy) {
+                bestEnergy = energy;
+                best = start + ENERGY_FRAME_SAMPLES / 2;
+            }
+        }
+        return best;
+    }
+
+    private void failFile(Batch batch, int index, File file, Exception e) {
+        batch.filesFailed++;
+        batch.fileProgress[index] = 1f;
+        batch.listener.onFileError(file, e);
+    }
+
+    private void finishFile(Batch batch, WhisperWrapper decoder, FileJob job) {
+        batch.filesTranscribed++;
+        batch.fileProgress[job.index] = 1f;
+        batch.listener.onFileTranscribed(job.reader.getFile(), job.text.toString().trim());
+        startNextFile(batch, decoder);
+    }
+
+    private static class Batch {
+        final List<File> files;
+        final BatchTranscriptionListener listener;
+        final ArrayDeque<Integer> queue = new ArrayDeque<>();
+        final float[] fileProgress;
+        final long startTime = SystemClock.elapsedRealtime();
+        volatile boolean cancelled; // Set by release() from any thread
+        int activeDecoders;
+        int filesTranscribed;
+        int filesFailed;
+        double audioSeconds;
+
+        Batch(List<File> files, BatchTranscriptionListener listener) {
+            this.files = new ArrayList<>(files);
+            this.listener = listener;
+            this.fileProgress = new float[files.size()];
+            for (int i = 0; i < files.size(); i++) {
+                queue.add(i);
+            }
+        }
+
+        float progress() {
+            float sum = 0f;
+            for (float p : fileProgress) {
+                sum += p;
+            }
+            return fileProgress.length > 0 ? sum / fileProgress.length : 1f;
+        }
+
+        double wallSeconds() {
+            return (SystemClock.elapsedRealtime() - startTime) / 1000.0;
+        }
+
+        double throughput() {
+            double wall = wallSeconds();
+            return wall > 0 ? audioSeconds / wall : 0;
+        }
+
+        Stats stats() {
+            return new Stats(filesTranscribed, filesFailed, audioSeconds, wallSeconds());
+        }
+    }
+
+    private static class FileJob {
+        final int index;
+        final PcmFileReader reader;
+        final StringBuilder text = new StringBuilder();
+        long position; // Next 16kHz sample to transcribe
+
+        FileJob(int index, PcmFileReader reader) {
+            this.index = index;
+            this.reader = reader;
+        }
+    }
+}
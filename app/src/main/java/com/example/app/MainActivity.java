@@ -4,11 +4,10 @@ package com.example.app;
 import android.Manifest;
 import android.content.Context;
 import android.content.pm.PackageManager;
-import android.media.AudioFormat;
-import android.media.AudioRecord;
-import android.media.MediaRecorder;
+import android.content.Intent;
 import android.os.AsyncTask;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.util.Log;
 import android.view.View;
 import android.widget.Button;
@@ -37,10 +36,15 @@ import java.lang.reflect.Type;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import ai.picovoice.porcupine.PorcupineException;
 import ai.picovoice.porcupine.PorcupineManager;
@@ -52,14 +56,21 @@ public class MainActivity extends AppCompatActivity implements TaskAdapter.OnTas
 
     private static final String TAG = "VoiceTasksApp";
     private static final int REQUEST_CODE_AUDIO_PERMISSION = 1;
-    private static final int SAMPLE_RATE = 16000; // Standard for speech recognition
-    private static final int RECORDING_DURATION_SECONDS = 5;
-    private static final int AUDIO_SOURCE = MediaRecorder.AudioSource.MIC;
-    private static final int CHANNEL_CONFIG = AudioFormat.CHANNEL_IN_MONO;
-    private static final int AUDIO_FORMAT = AudioFormat.ENCODING_PCM_16BIT;
+    static final int SAMPLE_RATE = 16000; // Standard for speech recognition
+    static final int RECORDING_DURATION_SECONDS = 5;
+    // Cap on one recording; shared with ReplayRegressionTest so it times the same input
+    static final int MAX_RECORDING_SAMPLES = SAMPLE_RATE * RECORDING_DURATION_SECONDS;
+
+    // Intent extras for the capture/replay harness, honoured in debug builds only, e.g.
+    // adb shell am start -n com.example.app/.MainActivity --es replay_session /path/session.wav --ef replay_speed 4
+    private static final String EXTRA_REPLAY_SESSION = "replay_session";      // Session file to use instead of the mic
+    private static final String EXTRA_REPLAY_SPEED = "replay_speed";          // 1 = real time, 0 = unpaced
+    private static final String EXTRA_RECORD_SESSIONS = "record_sessions";    // Save every recording to SESSIONS_DIR
+    // Under internal storage, so other apps can't read recordings (fetch with adb shell run-as)
+    private static final String SESSIONS_DIR = "sessions";
 
     private PorcupineManager porcupineManager;
-    private AudioRecord audioRecorder;
+    private AudioSource audioSource; // Active source while recording, so onPause can release it
     private ExecutorService mainExecutor; // For general background tasks and audio recording
 
     private TextView statusText;
@@ -71,11 +82,19 @@ public class MainActivity extends AppCompatActivity implements TaskAdapter.OnTas
     private static final String ACCESS_KEY = "GET_YOUR_KEY_FROM_PICOVOICE";
 
     // Whisper model asset name
-    private static final String WHISPER_MODEL_ASSET = "ggml-tiny.en-q8_0.bin";
+    static final String WHISPER_MODEL_ASSET = "ggml-tiny.en-q8_0.bin";
     private static final String TASKS_FILE = "tasks.json";
+    // Folder (under the app's external files dir) scanned for .wav/.pcm voice memos to import
+    private static final String IMPORTS_DIR = "imports";
+    // Dedicated Whisper contexts for imports, so a wake-word transcription never queues behind
+    // batch windows. Each loads its own copy of the model, so keep this small.
+    private static final int MAX_IMPORT_DECODERS = 2;
 
     // NEW: WhisperWrapper instance
     private WhisperWrapper whisperWrapper;
+    private BatchTranscriber batchTranscriber;
+    private List<WhisperWrapper> importDecoders; // Alive only while an import runs
+    private Button importMemosButton;
 
 
     @Override
@@ -86,6 +105,7 @@ public class MainActivity extends AppCompatActivity implements TaskAdapter.OnTas
         statusText = findViewById(R.id.statusText);
         taskRecyclerView = findViewById(R.id.taskRecyclerView);
         Button addNewTaskButton = findViewById(R.id.addNewTaskButton);
+        importMemosButton = findViewById(R.id.importMemosButton);
 
         tasks = loadTasks(); // Load tasks on startup
         taskAdapter = new TaskAdapter(this, tasks, this);
@@ -104,6 +124,8 @@ public class MainActivity extends AppCompatActivity implements TaskAdapter.OnTas
             Toast.makeText(this, "Manual task added (for testing)", Toast.LENGTH_SHORT).show();
         });
 
+        importMemosButton.setOnClickListener(v -> importVoiceMemos());
+
         // Request permissions
         if (ContextCompat.checkSelfPermission(this, Manifest.permission.RECORD_AUDIO) != PackageManager.PERMISSION_GRANTED) {
             ActivityCompat.requestPermissions(this, new String[]{Manifest.permission.RECORD_AUDIO}, REQUEST_CODE_AUDIO_PERMISSION);
@@ -133,7 +155,12 @@ public class MainActivity extends AppCompatActivity implements TaskAdapter.OnTas
                     @Override
                     public void onResult(String result) {
                         // Whisper initialization successful
-                        runOnUiThread(MainActivity.this::startPorcupine); // Proceed to start Porcupine on UI thread
+                        if (BuildConfig.DEBUG && getIntent().hasExtra(EXTRA_REPLAY_SESSION)) {
+                            // No wake word to wait for: replay the session as if it had just fired.
+                            runOnUiThread(MainActivity.this::startRecordingAndTranscribing);
+                        } else {
+                            runOnUiThread(MainActivity.this::startPorcupine); // Proceed to start Porcupine on UI thread
+                        }
                     }
 
                     @Override
@@ -226,9 +253,12 @@ public class MainActivity extends AppCompatActivity implements TaskAdapter.OnTas
         }
 
         mainExecutor.execute(() -> { // Use mainExecutor for audio recording and transcription trigger
-            int bufferSize = AudioRecord.getMinBufferSize(SAMPLE_RATE, CHANNEL_CONFIG, AUDIO_FORMAT);
-            if (bufferSize == AudioRecord.ERROR_BAD_VALUE || bufferSize == AudioRecord.ERROR) {
-                Log.e(TAG, "AudioRecord.getMinBufferSize returned invalid value: " + bufferSize);
+            AudioSource source = createAudioSource();
+            try {
+                source.start();
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Audio source setup failed: " + e.getMessage(), e);
+                source.release();
                 runOnUiThread(() -> {
                     Toast.makeText(MainActivity.this, "Recording setup error.", Toast.LENGTH_LONG).show();
                     statusText.setText("Recording setup error.");
@@ -236,61 +266,27 @@ public class MainActivity extends AppCompatActivity implements TaskAdapter.OnTas
                 restartPorcupineSafely();
                 return;
             }
+            audioSource = source;
 
-            audioRecorder = new AudioRecord(AUDIO_SOURCE, SAMPLE_RATE, CHANNEL_CONFIG, AUDIO_FORMAT, bufferSize);
-
-            if (audioRecorder.getState() != AudioRecord.STATE_INITIALIZED) {
-                Log.e(TAG, "AudioRecord initialization failed.");
-                runOnUiThread(() -> {
-                    Toast.makeText(MainActivity.this, "AudioRecord init failed.", Toast.LENGTH_LONG).show();
-                    statusText.setText("Audio record init error.");
-                });
-                restartPorcupineSafely();
-                return;
-            }
-
-            // Create a buffer to hold all recorded audio samples
-            // Short array because ENCODING_PCM_16BIT means 2 bytes per sample, which fits in 'short'
-            int numSamplesToRecord = SAMPLE_RATE * RECORDING_DURATION_SECONDS;
-            short[] audioBuffer = new short[numSamplesToRecord]; // Total samples
-            int samplesRead = 0;
-
-            audioRecorder.startRecording();
             runOnUiThread(() -> statusText.setText("Recording... (" + RECORDING_DURATION_SECONDS + "s)"));
 
-            long startTime = System.currentTimeMillis();
-            long endTime = startTime + (RECORDING_DURATION_SECONDS * 1000);
-
-            // Read audio data until duration is met or buffer is full
-            while (System.currentTimeMillis() < endTime && samplesRead < numSamplesToRecord) {
-                int result = audioRecorder.read(audioBuffer, samplesRead, Math.min(bufferSize / 2, numSamplesToRecord - samplesRead));
-                if (result > 0) {
-                    samplesRead += result;
-                } else if (result == AudioRecord.ERROR_INVALID_OPERATION) {
-                    Log.e(TAG, "AudioRecord.read: ERROR_INVALID_OPERATION");
-                    break;
-                } else if (result == AudioRecord.ERROR_BAD_VALUE) {
-                    Log.e(TAG, "AudioRecord.read: ERROR_BAD_VALUE");
-                    break;
-                }
-            }
-
-            audioRecorder.stop();
-            audioRecorder.release();
-            audioRecorder = null;
+            // Read audio data until the duration is met (the mic delivers it in real time) or the source ends
+            // Short array because ENCODING_PCM_16BIT means 2 bytes per sample, which fits in 'short'
+            final short[] finalAudioSamples = source.capture(MAX_RECORDING_SAMPLES);
 
-            // Trim audioBuffer to actual samples read
-            final short[] finalAudioSamples = new short[samplesRead];
-            System.arraycopy(audioBuffer, 0, finalAudioSamples, 0, samplesRead);
+            source.release();
+            audioSource = null;
+            final long captureEndTime = SystemClock.elapsedRealtime();
 
             runOnUiThread(() -> statusText.setText("Recording finished. Transcribing..."));
-            Log.d(TAG, "Recording finished. Samples recorded: " + samplesRead);
+            Log.d(TAG, "Recording finished. Samples recorded: " + finalAudioSamples.length);
 
             // NEW: Transcribe using WhisperWrapper (calls native code)
             if (whisperWrapper != null) {
                 whisperWrapper.transcribe(finalAudioSamples, new WhisperTranscriptionCallback() {
                     @Override
                     public void onResult(String result) {
+                        Log.d(TAG, "Transcription latency: " + (SystemClock.elapsedRealtime() - captureEndTime) + "ms");
                         runOnUiThread(() -> {
                             if (result != null && !result.isEmpty()) {
                                 addTask(new Task(UUID.randomUUID().toString(), result, false));
@@ -324,6 +320,31 @@ public class MainActivity extends AppCompatActivity implements TaskAdapter.OnTas
         });
     }
 
+    /**
+     * Picks the audio source for the next recording: the microphone, or in debug builds the
+     * session file given through EXTRA_REPLAY_SESSION. With EXTRA_RECORD_SESSIONS (debug builds
+     * only) the source is also saved to internal storage.
+     */
+    private AudioSource createAudioSource() {
+        if (!BuildConfig.DEBUG) {
+            // The activity is exported; never let other apps redirect or record the microphone.
+            return new MicAudioSource(SAMPLE_RATE);
+        }
+        Intent intent = getIntent();
+        String replaySession = intent.getStringExtra(EXTRA_REPLAY_SESSION);
+        AudioSource source = replaySession != null
+                ? new ReplayAudioSource(new File(replaySession), intent.getFloatExtra(EXTRA_REPLAY_SPEED, 1f))
+                : new MicAudioSource(SAMPLE_RATE);
+
+        if (intent.getBooleanExtra(EXTRA_RECORD_SESSIONS, false)) {
+            File sessionsDir = new File(getFilesDir(), SESSIONS_DIR);
+            if (sessionsDir.isDirectory() || sessionsDir.mkdirs()) {
+                source = new SessionRecorder(source, new File(sessionsDir, "session_" + System.currentTimeMillis() + ".wav"));
+            }
+        }
+        return source;
+    }
+
     /**
      * Helper to restart Porcupine. It will attempt to start the PorcupineManager
      * if it's initialized.
@@ -342,6 +363,127 @@ public class MainActivity extends AppCompatActivity implements TaskAdapter.OnTas
     }
 
 
+    /**
+     * Transcribes every .wav/.pcm file in the imports folder and adds one task per file.
+     * Files are streamed from disk by BatchTranscriber, so long memos are fine. The import runs
+     * on its own pool of Whisper contexts, which is loaded on demand and freed when it finishes.
+     */
+    private void importVoiceMemos() {
+        if (importDecoders != null) {
+            Toast.makeText(this, "An import is already running.", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        File modelFile = new File(getFilesDir(), WHISPER_MODEL_ASSET);
+        if (!modelFile.exists()) {
+            Toast.makeText(this, "Whisper model not ready yet.", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        File importsDir = getExternalFilesDir(IMPORTS_DIR);
+        File[] found = importsDir != null
+                ? importsDir.listFiles((dir, name) -> name.toLowerCase().endsWith(".wav") || name.toLowerCase().endsWith(".pcm"))
+                : null;
+        if (found == null || found.length == 0) {
+            Toast.makeText(this, "No .wav/.pcm files in " + (importsDir != null ? importsDir.getAbsolutePath() : IMPORTS_DIR), Toast.LENGTH_LONG).show();
+            return;
+        }
+        List<File> memos = new ArrayList<>(Arrays.asList(found));
+        Collections.sort(memos);
+
+        // Split the cores between the decoders instead of each one grabbing all of them.
+        int cores = Runtime.getRuntime().availableProcessors();
+        int decoderCount = Math.max(1, Math.min(Math.min(MAX_IMPORT_DECODERS, memos.size()), cores / 2));
+        int threadsPerDecoder = Math.max(1, cores / decoderCount);
+
+        importMemosButton.setEnabled(false);
+        statusText.setText("Loading " + decoderCount + " decoder(s) for import...");
+        List<WhisperWrapper> decoders = new ArrayList<>();
+        importDecoders = decoders;
+        AtomicInteger pending = new AtomicInteger(decoderCount);
+        AtomicBoolean failed = new AtomicBoolean(false);
+        for (int i = 0; i < decoderCount; i++) {
+            WhisperWrapper decoder = new WhisperWrapper(this, threadsPerDecoder);
+            decoders.add(decoder);
+            decoder.initialize(modelFile.getAbsolutePath(), "en", new WhisperTranscriptionCallback() {
+                @Override
+                public void onResult(String result) {
+                    if (pending.decrementAndGet() == 0) {
+                        runOnUiThread(() -> onImportDecodersReady(decoders, memos, failed.get()));
+                    }
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    Log.e(TAG, "Error loading import decoder: " + e.getMessage(), e);
+                    failed.set(true);
+                    if (pending.decrementAndGet() == 0) {
+                        runOnUiThread(() -> onImportDecodersReady(decoders, memos, true));
+                    }
+                }
+            });
+        }
+    }
+
+    private void onImportDecodersReady(List<WhisperWrapper> decoders, List<File> memos, boolean failed) {
+        if (importDecoders != decoders) {
+            return; // Activity was destroyed in the meantime
+        }
+        if (failed) {
+            Toast.makeText(this, "Could not load Whisper for import.", Toast.LENGTH_LONG).show();
+            finishImport();
+            return;
+        }
+
+        batchTranscriber = new BatchTranscriber(decoders);
+        statusText.setText("Importing " + memos.size() + " voice memo(s)...");
+        batchTranscriber.transcribe(memos, new BatchTranscriptionListener() {
+            @Override
+            public void onProgress(File file, float fileProgress, float batchProgress, double audioSecondsPerWallSecond) {
+                runOnUiThread(() -> statusText.setText(String.format(Locale.US, "Importing... %d%% (%.1fx real time)",
+                        Math.round(batchProgress * 100), audioSecondsPerWallSecond)));
+            }
+
+            @Override
+            public void onFileTranscribed(File file, String text) {
+                if (!text.isEmpty()) {
+                    runOnUiThread(() -> addTask(new Task(UUID.randomUUID().toString(), text, false)));
+                }
+            }
+
+            @Override
+            public void onFileError(File file, Exception e) {
+                Log.e(TAG, "Error importing " + file.getName() + ": " + e.getMessage(), e);
+            }
+
+            @Override
+            public void onBatchComplete(BatchTranscriber.Stats stats) {
+                Log.d(TAG, "Voice memo import finished: " + stats);
+                runOnUiThread(() -> {
+                    Toast.makeText(MainActivity.this, "Imported " + stats.filesTranscribed + " memo(s), " + stats.filesFailed + " failed.", Toast.LENGTH_LONG).show();
+                    statusText.setText("Listening for wake word...");
+                    finishImport();
+                });
+            }
+        });
+    }
+
+    /**
+     * Frees the import decoders and scheduler and re-enables the import button.
+     */
+    private void finishImport() {
+        if (batchTranscriber != null) {
+            batchTranscriber.release();
+            batchTranscriber = null;
+        }
+        if (importDecoders != null) {
+            for (WhisperWrapper decoder : importDecoders) {
+                decoder.release();
+            }
+            importDecoders = null;
+        }
+        importMemosButton.setEnabled(true);
+    }
+
+
     /** Task Management (UNCHANGED) **/
 
     private List<Task> loadTasks() {
@@ -433,15 +575,9 @@ public class MainActivity extends AppCompatActivity implements TaskAdapter.OnTas
                 Log.e(TAG, "Error stopping Porcupine on pause: " + e.getMessage(), e);
             }
         }
-        if (audioRecorder != null) {
-            try {
-                audioRecorder.stop();
-                audioRecorder.release();
-            }
-             catch (IllegalStateException e) {
-                Log.e(TAG, "Error stopping/releasing audio recorder on pause: " + e.getMessage(), e);
-            }
-            audioRecorder = null;
+        if (audioSource != null) {
+            audioSource.release();
+            audioSource = null;
         }
     }
 
@@ -465,6 +601,7 @@ public class MainActivity extends AppCompatActivity implements TaskAdapter.OnTas
             }
             porcupineManager = null;
         }
+        finishImport();
         if (whisperWrapper != null) { // NEW: Release WhisperWrapper resources
             whisperWrapper.release();
         }
@@ -0,0 +1,76 @@
+// MicAudioSource.java (in app/src/main/java/com/example/app/)
+package com.example.app;
+
+import android.media.AudioFormat;
+import android.media.AudioRecord;
+import android.media.MediaRecorder;
+import android.util.Log;
+
+import java.io.IOException;
+
+/**
+ * {@link AudioSource} backed by the device microphone through AudioRecord.
+ * Requires the RECORD_AUDIO permission.
+ */
+public class MicAudioSource implements AudioSource {
+    private static final String TAG = "MicAudioSource";
+    private static final int AUDIO_SOURCE = MediaRecorder.AudioSource.MIC;
+    private static final int CHANNEL_CONFIG = AudioFormat.CHANNEL_IN_MONO;
+    private static final int AUDIO_FORMAT = AudioFormat.ENCODING_PCM_16BIT;
+
+    private final int sampleRate;
+    private AudioRecord audioRecorder;
+
+    public MicAudioSource(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    @Override
+    public void start() throws IOException {
+        int bufferSize = AudioRecord.getMinBufferSize(sampleRate, CHANNEL_CONFIG, AUDIO_FORMAT);
+        if (bufferSize == AudioRecord.ERROR_BAD_VALUE || bufferSize == AudioRecord.ERROR) {
+            throw new IOException("AudioRecord.getMinBufferSize returned invalid value: " + bufferSize);
+        }
+
+        audioRecorder = new AudioRecord(AUDIO_SOURCE, sampleRate, CHANNEL_CONFIG, AUDIO_FORMAT, bufferSize);
+        if (audioRecorder.getState() != AudioRecord.STATE_INITIALIZED) {
+            audioRecorder.release();
+            audioRecorder = null;
+            throw new IOException("AudioRecord initialization failed.");
+        }
+        audioRecorder.startRecording();
+    }
+
+    @Override
+    public int read(short[] buffer, int offset, int length) {
+        AudioRecord recorder = audioRecorder;
+        if (recorder == null) {
+            return AudioRecord.ERROR_INVALID_OPERATION;
+        }
+        int result = recorder.read(buffer, offset, length);
+        if (result == AudioRecord.ERROR_INVALID_OPERATION) {
+            Log.e(TAG, "AudioRecord.read: ERROR_INVALID_OPERATION");
+        } else if (result == AudioRecord.ERROR_BAD_VALUE) {
+            Log.e(TAG, "AudioRecord.read: ERROR_BAD_VALUE");
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void release() {
+        if (audioRecorder != null) {
+            try {
+                audioRecorder.stop();
+            } catch (IllegalStateException e) {
+                Log.e(TAG, "Error stopping audio recorder: " + e.getMessage(), e);
+            }
+            audioRecorder.release();
+            audioRecorder = null;
+        }
+    }
+}
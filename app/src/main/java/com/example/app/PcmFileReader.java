@@ -0,0 +1,227 @@
+// PcmFileReader.java (in app/src/main/java/com/example/app/)
+package com.example.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads WAV or raw PCM files through a memory-mapped buffer and hands out windows of
+ * 16kHz mono float samples, as expected by whisper.cpp.
+ *
+ * Only the audio data chunk is mapped; pages are loaded by the OS as windows are read,
+ * so long voice memos never end up on the Java heap as a whole.
+ * Raw .pcm files are assumed to already be 16kHz, 16-bit, mono, little-endian.
+ */
+public class PcmFileReader {
+    public static final int TARGET_SAMPLE_RATE = 16000;
+
+    private static final int WAVE_FORMAT_PCM = 1;
+    private static final int WAVE_FORMAT_IEEE_FLOAT = 3;
+    private static final int WAVE_FORMAT_EXTENSIBLE = 0xFFFE;
+
+    private final File file;
+    private final MappedByteBuffer data;
+    private final int sampleRate;
+    private final int channels;
+    private final int bitsPerSample;
+    private final boolean isFloat;
+    private final int frameSize;  // Bytes per frame (all channels)
+    private final long frameCount;
+
+    private PcmFileReader(File file, MappedByteBuffer data, int sampleRate, int channels,
+                          int bitsPerSample, boolean isFloat) {
+        this.file = file;
+        this.data = data;
+        this.sampleRate = sampleRate;
+        this.channels = channels;
+        this.bitsPerSample = bitsPerSample;
+        this.isFloat = isFloat;
+        this.frameSize = channels * (bitsPerSample / 8);
+        this.frameCount = data.capacity() / frameSize;
+        data.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Opens and maps a .wav (RIFF/WAVE) or raw .pcm file.
+     * @param file The audio file.
+     * @return A reader over the file's audio data.
+     * @throws IOException If the file can't be read or isn't in a supported format.
+     */
+    public static PcmFileReader open(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            // The mapping stays valid after the channel is closed.
+            if (!file.getName().toLowerCase().endsWith(".wav")) {
+                return new PcmFileReader(file, map(channel, 0, channel.size()),
+                        TARGET_SAMPLE_RATE, 1, 16, false);
+            }
+            return openWav(file, channel);
+        }
+    }
+
+    private static PcmFileReader openWav(File file, FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, header, 0);
+        if (header.getInt(0) != 0x46464952 /* "RIFF" */ || header.getInt(8) != 0x45564157 /* "WAVE" */) {
+            throw new IOException("Not a RIFF/WAVE file: " + file.getName());
+        }
+
+        int format = -1;
+        int channels = 0;
+        int sampleRate = 0;
+        int bitsPerSample = 0;
+        long position = 12;
+        ByteBuffer chunkHeader = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+
+        // Walk the chunks until "data"; "fmt " must come first per the spec.
+        while (position + 8 <= channel.size()) {
+            chunkHeader.clear();
+            readFully(channel, chunkHeader, position);
+            int chunkId = chunkHeader.getInt(0);
+            long chunkSize = chunkHeader.getInt(4) & 0xFFFFFFFFL;
+            long chunkStart = position + 8;
+
+            if (chunkId == 0x20746d66 /* "fmt " */) {
+                if (chunkSize < 16) {
+                    // Legacy 14-byte WAVEFORMAT (no bits per sample) or a truncated header
+                    throw new IOException("WAV fmt chunk too short (" + chunkSize + " bytes): " + file.getName());
+                }
+                ByteBuffer fmt = ByteBuffer.allocate((int) Math.min(chunkSize, 40)).order(ByteOrder.LITTLE_ENDIAN);
+                readFully(channel, fmt, chunkStart);
+                format = fmt.getShort(0) & 0xFFFF;
+                channels = fmt.getShort(2) & 0xFFFF;
+                sampleRate = fmt.getInt(4);
+                bitsPerSample = fmt.getShort(14) & 0xFFFF;
+                if (format == WAVE_FORMAT_EXTENSIBLE && fmt.capacity() >= 26) {
+                    format = fmt.getShort(24) & 0xFFFF; // First two bytes of the SubFormat GUID
+                }
+            } else if (chunkId == 0x61746164 /* "data" */) {
+                if (format == -1) {
+                    throw new IOException("WAV data chunk before fmt chunk: " + file.getName());
+                }
+                boolean isFloat = format == WAVE_FORMAT_IEEE_FLOAT;
+                boolean supported = (format == WAVE_FORMAT_PCM && (bitsPerSample == 8 || bitsPerSample == 16))
+                        || (isFloat && bitsPerSample == 32);
+                if (!supported || bitsPerSample == 0 || channels < 1 || sampleRate <= 0) {
+                    throw new IOException("Unsupported WAV format (format=" + format + ", bits=" + bitsPerSample
+                            + ", channels=" + channels + ", rate=" + sampleRate + "): " + file.getName());
+                }
+                // Some writers leave the size at 0 or 0xFFFFFFFF when streaming; clamp to the file.
+                long dataSize = Math.min(chunkSize, channel.size() - chunkStart);
+                if (chunkSize == 0) {
+                    dataSize = channel.size() - chunkStart;
+                }
+                return new PcmFileReader(file, map(channel, chunkStart, dataSize),
+                        sampleRate, channels, bitsPerSample, isFloat);
+            }
+            position = chunkStart + chunkSize + (chunkSize & 1); // Chunks are word aligned
+        }
+        throw new IOException("WAV file has no data chunk: " + file.getName());
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long offset, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Audio data too large to map (" + size + " bytes).");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of file.");
+            }
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public int getSourceSampleRate() {
+        return sampleRate;
+    }
+
+    public int getSourceChannels() {
+        return channels;
+    }
+
+    /** Number of samples the file yields once converted to 16kHz mono. */
+    public long getSampleCount() {
+        return frameCount * TARGET_SAMPLE_RATE / sampleRate;
+    }
+
+    public double getDurationSeconds() {
+        return (double) frameCount / sampleRate;
+    }
+
+    /**
+     * Fills out with 16kHz mono samples starting at the given output sample index.
+     * Channels are averaged. Higher sample rates are decimated by averaging the source frames
+     * each output sample covers (a box low-pass, so content above 8kHz doesn't alias into the
+     * speech band); lower ones are linearly interpolated.
+     * @param out Destination buffer; up to out.length samples are written.
+     * @param startSample Index (in 16kHz samples) of the first sample to read.
+     * @return Number of samples written, 0 at end of file.
+     */
+    public int read(float[] out, long startSample) {
+        int count = (int) Math.max(0, Math.min(out.length, getSampleCount() - startSample));
+        if (sampleRate == TARGET_SAMPLE_RATE) {
+            for (int i = 0; i < count; i++) {
+                out[i] = frame(startSample + i);
+            }
+            return count;
+        }
+
+        double step = (double) sampleRate / TARGET_SAMPLE_RATE;
+        if (step > 1) {
+            for (int i = 0; i < count; i++) {
+                long first = (long) ((startSample + i) * step);
+                long end = Math.min(Math.max(first + 1, (long) ((startSample + i + 1) * step)), frameCount);
+                float sum = 0f;
+                for (long f = first; f < end; f++) {
+                    sum += frame(f);
+                }
+                out[i] = sum / (end - first);
+            }
+            return count;
+        }
+
+        for (int i = 0; i < count; i++) {
+            double srcPos = (startSample + i) * step;
+            long i0 = (long) srcPos;
+            long i1 = Math.min(i0 + 1, frameCount - 1);
+            float frac = (float) (srcPos - i0);
+            float s0 = frame(i0);
+            out[i] = s0 + (frame(i1) - s0) * frac;
+        }
+        return count;
+    }
+
+    // Mono sample (channels averaged) of the given source frame, normalized to -1.0 to 1.0.
+    private float frame(long frameIndex) {
+        int offset = (int) (frameIndex * frameSize);
+        float sum = 0f;
+        for (int c = 0; c < channels; c++) {
+            sum += sample(offset);
+            offset += bitsPerSample / 8;
+        }
+        return sum / channels;
+    }
+
+    private float sample(int offset) {
+        if (isFloat) {
+            return data.getFloat(offset);
+        }
+        if (bitsPerSample == 16) {
+            return data.getShort(offset) / 32768.0f;
+        }
+        return ((data.get(offset) & 0xFF) - 128) / 128.0f; // 8-bit PCM is unsigned
+    }
+}
@@ -0,0 +1,80 @@
+// ReplayAudioSource.java (in app/src/main/java/com/example/app/)
+package com.example.app;
+
+import android.os.SystemClock;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * {@link AudioSource} that replays a recorded session (.wav or raw .pcm) instead of the microphone,
+ * so the pipeline can be driven with the same audio on every run.
+ *
+ * Audio is delivered at real time (speed 1), accelerated (speed > 1), or as fast as it can be
+ * read (speed 0).
+ */
+public class ReplayAudioSource implements AudioSource {
+    private final File sessionFile;
+    private final float speed;
+    private PcmFileReader reader;
+    private float[] scratch = new float[0];
+    private long position;    // Next sample to deliver
+    private long startTime;   // elapsedRealtime when start() was called
+
+    /**
+     * @param sessionFile A session saved by {@link SessionRecorder}, or any file {@link PcmFileReader} accepts.
+     * @param speed Playback speed: 1 for real time, 0 for unpaced.
+     */
+    public ReplayAudioSource(File sessionFile, float speed) {
+        this.sessionFile = sessionFile;
+        this.speed = speed;
+    }
+
+    @Override
+    public int getSampleRate() {
+        return PcmFileReader.TARGET_SAMPLE_RATE;
+    }
+
+    @Override
+    public void start() throws IOException {
+        reader = PcmFileReader.open(sessionFile);
+        position = 0;
+        startTime = SystemClock.elapsedRealtime();
+    }
+
+    /** Length of the session in samples, or 0 before start(). */
+    public long getSampleCount() {
+        return reader != null ? reader.getSampleCount() : 0;
+    }
+
+    @Override
+    public int read(short[] buffer, int offset, int length) {
+        PcmFileReader reader = this.reader; // release() may run concurrently from the UI thread
+        if (reader == null) {
+            return 0;
+        }
+        if (scratch.length != length) {
+            scratch = new float[length];
+        }
+        int count = reader.read(scratch, position);
+        for (int i = 0; i < count; i++) {
+            buffer[offset + i] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(scratch[i] * 32768.0f)));
+        }
+        position += count;
+
+        if (speed > 0 && count > 0) {
+            // Hold the samples back until they would have been captured live.
+            long dueTime = startTime + (long) (position * 1000 / (getSampleRate() * speed));
+            long wait = dueTime - SystemClock.elapsedRealtime();
+            if (wait > 0) {
+                SystemClock.sleep(wait);
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void release() {
+        reader = null; // The mapping is unmapped when collected
+    }
+}
@@ -0,0 +1,135 @@
+// SessionRecorder.java (in app/src/main/java/com/example/app/)
+package com.example.app;
+
+import android.util.Log;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * {@link AudioSource} wrapper that passes audio through unchanged while saving it to disk.
+ *
+ * Sessions are written as 16-bit mono WAV at the source's sample rate: raw PCM behind a
+ * 44-byte header, readable by {@link ReplayAudioSource}, {@link PcmFileReader} and any
+ * audio tool. The header sizes are filled in on release(), even if writing failed part way,
+ * so a session always reads back up to the last sample that made it to disk.
+ */
+public class SessionRecorder implements AudioSource {
+    private static final String TAG = "SessionRecorder";
+    private static final int WAV_HEADER_SIZE = 44;
+
+    private final AudioSource source;
+    private final File sessionFile;
+    private OutputStream out;       // Null once closed or after a write error
+    private boolean started;        // Header placeholder written; release() must patch it
+    private byte[] scratch = new byte[0];
+    private long bytesWritten;
+
+    /**
+     * @param source The source to record (usually a {@link MicAudioSource}).
+     * @param sessionFile Where to save the session; overwritten if it exists.
+     */
+    public SessionRecorder(AudioSource source, File sessionFile) {
+        this.source = source;
+        this.sessionFile = sessionFile;
+    }
+
+    public File getSessionFile() {
+        return sessionFile;
+    }
+
+    @Override
+    public int getSampleRate() {
+        return source.getSampleRate();
+    }
+
+    @Override
+    public void start() throws IOException {
+        source.start();
+        out = new BufferedOutputStream(new FileOutputStream(sessionFile));
+        bytesWritten = 0;
+        started = true;
+        out.write(new byte[WAV_HEADER_SIZE]); // Placeholder, see writeHeader()
+    }
+
+    @Override
+    public synchronized int read(short[] buffer, int offset, int length) {
+        int result = source.read(buffer, offset, length);
+        if (result > 0 && out != null) {
+            if (scratch.length < result * 2) {
+                scratch = new byte[result * 2];
+            }
+            for (int i = 0; i < result; i++) {
+                short sample = buffer[offset + i];
+                scratch[i * 2] = (byte) sample;              // Little-endian
+                scratch[i * 2 + 1] = (byte) (sample >> 8);
+            }
+            try {
+                out.write(scratch, 0, result * 2);
+                bytesWritten += result * 2;
+            } catch (IOException e) {
+                // Recording is best effort; never break the live pipeline because of it.
+                Log.e(TAG, "Error writing session, recording stopped: " + e.getMessage(), e);
+                closeQuietly();
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void release() {
+        source.release();
+        if (!started) {
+            return;
+        }
+        started = false;
+        if (out != null) {
+            closeQuietly();
+        }
+        try {
+            writeHeader();
+            Log.d(TAG, "Session saved: " + sessionFile.getAbsolutePath() + " (" + bytesWritten + " bytes of audio)");
+        } catch (IOException e) {
+            Log.e(TAG, "Error finalizing session file: " + e.getMessage(), e);
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            out.close();
+        } catch (IOException e) {
+            Log.e(TAG, "Error closing session file: " + e.getMessage(), e);
+        }
+        out = null;
+    }
+
+    // bytesWritten can overcount if a buffered write failed on flush; PcmFileReader clamps the
+    // data size to the file length, so the session still reads back.
+    private void writeHeader() throws IOException {
+        int sampleRate = source.getSampleRate();
+        ByteBuffer header = ByteBuffer.allocate(WAV_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(0x46464952);                          // "RIFF"
+        header.putInt((int) (36 + bytesWritten));
+        header.putInt(0x45564157);                          // "WAVE"
+        header.putInt(0x20746d66);                          // "fmt "
+        header.putInt(16);                                  // fmt chunk size
+        header.putShort((short) 1);                         // PCM
+        header.putShort((short) 1);                         // Mono
+        header.putInt(sampleRate);
+        header.putInt(sampleRate * 2);                      // Byte rate
+        header.putShort((short) 2);                         // Block align
+        header.putShort((short) 16);                        // Bits per sample
+        header.putInt(0x61746164);                          // "data"
+        header.putInt((int) bytesWritten);
+
+        try (RandomAccessFile raf = new RandomAccessFile(sessionFile, "rw")) {
+            raf.write(header.array());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+// TranscriptionResult.java (in app/src/main/java/com/example/app/)
+package com.example.app;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Structured Whisper output: segments with start/end times, plus the tokens of each segment
+ * with their ids, probabilities and timestamps.
+ *
+ * Built once by native code from flat primitive arrays (offset tables + values) instead of
+ * one object per segment/token. Texts are kept as UTF-8 bytes and only decoded when asked for.
+ * All times are in milliseconds from the start of the transcribed audio.
+ */
+public class TranscriptionResult {
+    private final byte[] segmentText;          // All segment texts, concatenated (UTF-8)
+    private final int[] segmentTextOffsets;    // segmentCount + 1 byte offsets into segmentText
+    private final long[] segmentTimes;         // t0,t1 pairs per segment
+    private final int[] segmentTokenOffsets;   // segmentCount + 1 indices into the token arrays
+    private final byte[] tokenText;            // All token texts, concatenated (UTF-8)
+    private final int[] tokenTextOffsets;      // tokenCount + 1 byte offsets into tokenText
+    private final int[] tokenIds;
+    private final float[] tokenProbs;
+    private final long[] tokenTimes;           // t0,t1 pairs per token
+
+    // Called from native-lib.cpp; keep the signature in sync with fullTranscribeDetailed.
+    TranscriptionResult(byte[] segmentText, int[] segmentTextOffsets, long[] segmentTimes,
+                        int[] segmentTokenOffsets, byte[] tokenText, int[] tokenTextOffsets,
+                        int[] tokenIds, float[] tokenProbs, long[] tokenTimes) {
+        this.segmentText = segmentText;
+        this.segmentTextOffsets = segmentTextOffsets;
+        this.segmentTimes = segmentTimes;
+        this.segmentTokenOffsets = segmentTokenOffsets;
+        this.tokenText = tokenText;
+        this.tokenTextOffsets = tokenTextOffsets;
+        this.tokenIds = tokenIds;
+        this.tokenProbs = tokenProbs;
+        this.tokenTimes = tokenTimes;
+    }
+
+    // Segments
+
+    public int getSegmentCount() {
+        return segmentTextOffsets.length - 1;
+    }
+
+    public String getSegmentText(int segment) {
+        int start = segmentTextOffsets[segment];
+        return new String(segmentText, start, segmentTextOffsets[segment + 1] - start, StandardCharsets.UTF_8);
+    }
+
+    public long getSegmentStartMs(int segment) {
+        return segmentTimes[segment * 2];
+    }
+
+    public long getSegmentEndMs(int segment) {
+        return segmentTimes[segment * 2 + 1];
+    }
+
+    /** Index of the first token of the segment (use with the token getters below). */
+    public int getSegmentFirstToken(int segment) {
+        return segmentTokenOffsets[segment];
+    }
+
+    public int getSegmentTokenCount(int segment) {
+        return segmentTokenOffsets[segment + 1] - segmentTokenOffsets[segment];
+    }
+
+    /**
+     * Mean token probability of a segment, or 0 if it has no text tokens.
+     * Useful for dropping low-confidence segments before they become tasks.
+     */
+    public float getSegmentConfidence(int segment) {
+        int first = segmentTokenOffsets[segment];
+        int end = segmentTokenOffsets[segment + 1];
+        if (end == first) {
+            return 0f;
+        }
+        float sum = 0f;
+        for (int i = first; i < end; i++) {
+            sum += tokenProbs[i];
+        }
+        return sum / (end - first);
+    }
+
+    // Tokens (indices run over all segments)
+
+    public int getTokenCount() {
+        return tokenIds.length;
+    }
+
+    public int getTokenId(int token) {
+        return tokenIds[token];
+    }
+
+    /**
+     * Text of a single token. Whisper's BPE tokens can split a multi-byte UTF-8 character
+     * across two tokens, in which case each half decodes to U+FFFD here; use
+     * {@link #getTokensText} to decode a whole word instead.
+     */
+    public String getTokenText(int token) {
+        return getTokensText(token, token + 1);
+    }
+
+    /**
+     * Text of the tokens [firstToken, endToken), decoded as one byte range so characters
+     * split across token boundaries come out intact.
+     */
+    public String getTokensText(int firstToken, int endToken) {
+        int start = tokenTextOffsets[firstToken];
+        return new String(tokenText, start, tokenTextOffsets[endToken] - start, StandardCharsets.UTF_8);
+    }
+
+    public float getTokenProbability(int token) {
+        return tokenProbs[token];
+    }
+
+    public long getTokenStartMs(int token) {
+        return tokenTimes[token * 2];
+    }
+
+    public long getTokenEndMs(int token) {
+        return tokenTimes[token * 2 + 1];
+    }
+
+    // Whole result
+
+    /** The full transcript, same as what {@link WhisperWrapper#transcribe} returns. */
+    public String getText() {
+        return new String(segmentText, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Concatenated text of the segments whose mean token probability is at least minConfidence.
+     */
+    public String getText(float minConfidence) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < getSegmentCount(); i++) {
+            if (getSegmentConfidence(i) >= minConfidence) {
+                sb.append(getSegmentText(i));
+            }
+        }
+        return sb.toString();
+    }
+
+    public boolean isEmpty() {
+        return segmentText.length == 0;
+    }
+}
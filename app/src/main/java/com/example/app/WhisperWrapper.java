@@ -21,6 +21,14 @@ interface WhisperTranscriptionCallback {
     void onError(Exception e);
 }
 
+/**
+ * Callback interface for structured Whisper transcription results.
+ */
+interface WhisperDetailedTranscriptionCallback {
+    void onResult(TranscriptionResult result);
+    void onError(Exception e);
+}
+
 /**
  * A wrapper class to manage the native whisper.cpp context and provide transcription functionality.
  */
@@ -34,15 +42,27 @@ public class WhisperWrapper {
 
     // Native methods
     private native long initContext(String modelPath, String language);
-    private native String fullTranscribe(long contextPtr, float[] audioData);
+    private native String fullTranscribe(long contextPtr, float[] audioData, int threadCount, boolean keepContext);
+    private native TranscriptionResult fullTranscribeDetailed(long contextPtr, float[] audioData, int threadCount);
     private native void freeContext(long contextPtr);
 
     private long whisperContextPtr = 0; // Pointer to the native whisper_context
     private final Context appContext;
     private final ExecutorService transcriptionExecutor; // Dedicated executor for transcription
+    private final int threadCount; // Decoder threads per transcription, 0 for all cores
 
     public WhisperWrapper(Context context) {
+        this(context, 0);
+    }
+
+    /**
+     * @param context Any context; the application context is kept.
+     * @param threadCount Decoder threads per transcription, or 0 to use all cores. Set this when
+     *                    several wrappers decode at the same time so they don't oversubscribe the CPU.
+     */
+    public WhisperWrapper(Context context, int threadCount) {
         this.appContext = context.getApplicationContext();
+        this.threadCount = threadCount;
         // Use a single-threaded executor for sequential transcription
         this.transcriptionExecutor = Executors.newSingleThreadExecutor();
     }
@@ -56,6 +76,11 @@ public class WhisperWrapper {
     public void initialize(String modelPath, String language, WhisperTranscriptionCallback callback) {
         transcriptionExecutor.execute(() -> {
             try {
+                if (whisperContextPtr != 0) {
+                    // Each wrapper owns its context; drop the old one before loading a new model.
+                    freeContext(whisperContextPtr);
+                    whisperContextPtr = 0;
+                }
                 whisperContextPtr = initContext(modelPath, language);
                 if (whisperContextPtr != 0) {
                     Log.d(TAG, "Native Whisper context initialized successfully.");
@@ -84,13 +109,7 @@ public class WhisperWrapper {
 
         transcriptionExecutor.execute(() -> {
             try {
-                // Convert short[] (16-bit PCM) to float[] (32-bit float, expected by whisper.cpp)
-                float[] pcmf32 = new float[pcm16bitSamples.length];
-                for (int i = 0; i < pcm16bitSamples.length; i++) {
-                    pcmf32[i] = (float) pcm16bitSamples[i] / 32768.0f; // Normalize to -1.0 to 1.0
-                }
-
-                String result = fullTranscribe(whisperContextPtr, pcmf32);
+                String result = fullTranscribe(whisperContextPtr, toFloatPcm(pcm16bitSamples), threadCount, true);
                 if (result != null && !result.isEmpty()) {
                     callback.onResult(result);
                 } else {
@@ -103,6 +122,80 @@ public class WhisperWrapper {
         });
     }
 
+    /**
+     * Transcribes audio that is already in whisper.cpp's float format on a background thread.
+     * Audio must be 16kHz, mono, normalized to -1.0 to 1.0.
+     * @param pcmf32 Audio samples as float array.
+     * @param callback Callback for transcription result.
+     */
+    public void transcribe(float[] pcmf32, WhisperTranscriptionCallback callback) {
+        transcribe(pcmf32, true, callback);
+    }
+
+    /**
+     * Like {@link #transcribe(float[], WhisperTranscriptionCallback)}, but lets the caller choose
+     * whether the decoder is conditioned on the text of this wrapper's previous transcription.
+     * @param pcmf32 Audio samples as float array.
+     * @param keepContext True only when the audio continues the previous call's (e.g. the next
+     *                    window of the same file); false for the start of unrelated audio.
+     * @param callback Callback for transcription result.
+     */
+    public void transcribe(float[] pcmf32, boolean keepContext, WhisperTranscriptionCallback callback) {
+        if (whisperContextPtr == 0) {
+            callback.onError(new IllegalStateException("Whisper context not initialized."));
+            return;
+        }
+
+        transcriptionExecutor.execute(() -> {
+            try {
+                String result = fullTranscribe(whisperContextPtr, pcmf32, threadCount, keepContext);
+                callback.onResult(result != null ? result : "");
+            } catch (Exception e) {
+                Log.e(TAG, "Whisper transcription error: " + e.getMessage(), e);
+                callback.onError(new RuntimeException("Whisper transcription failed: " + e.getMessage(), e));
+            }
+        });
+    }
+
+    /**
+     * Transcribes audio like {@link #transcribe}, but returns segments with start/end times and
+     * per-token ids and probabilities instead of a flat string.
+     * Audio must be 16kHz, 16-bit PCM, mono.
+     * @param pcm16bitSamples Audio samples as short array.
+     * @param callback Callback for the structured transcription result.
+     */
+    public void transcribeDetailed(short[] pcm16bitSamples, WhisperDetailedTranscriptionCallback callback) {
+        if (whisperContextPtr == 0) {
+            callback.onError(new IllegalStateException("Whisper context not initialized."));
+            return;
+        }
+
+        transcriptionExecutor.execute(() -> {
+            try {
+                TranscriptionResult result = fullTranscribeDetailed(whisperContextPtr, toFloatPcm(pcm16bitSamples), threadCount);
+                if (result == null) {
+                    // Native side returns null only when whisper_full fails; silence gives an empty result.
+                    throw new IllegalStateException("Native transcription failed.");
+                }
+                callback.onResult(result);
+            } catch (Exception e) {
+                Log.e(TAG, "Whisper transcription error: " + e.getMessage(), e);
+                callback.onError(new RuntimeException("Whisper transcription failed: " + e.getMessage(), e));
+            }
+        });
+    }
+
+    /**
+     * Converts short[] (16-bit PCM) to float[] (32-bit float, expected by whisper.cpp).
+     */
+    private static float[] toFloatPcm(short[] pcm16bitSamples) {
+        float[] pcmf32 = new float[pcm16bitSamples.length];
+        for (int i = 0; i < pcm16bitSamples.length; i++) {
+            pcmf32[i] = (float) pcm16bitSamples[i] / 32768.0f; // Normalize to -1.0 to 1.0
+        }
+        return pcmf32;
+    }
+
     /**
      * Frees the native Whisper context resources.
      */
@@ -0,0 +1,47 @@
+// WordErrorRate.java (in app/src/sharedTest/java/com/example/app/)
+package com.example.app;
+
+import java.util.Locale;
+
+/**
+ * Word error rate between an expected and an actual transcript, used by ReplayRegressionTest.
+ * Lives in sharedTest so the JVM unit tests can cover it without shipping it in the APK.
+ */
+final class WordErrorRate {
+    private WordErrorRate() {
+    }
+
+    /**
+     * Word-level edit distance between expected and actual, divided by the expected word count.
+     * Case and punctuation are ignored.
+     */
+    static double of(String expected, String actual) {
+        String[] ref = normalizeWords(expected);
+        String[] hyp = normalizeWords(actual);
+        if (ref.length == 0) {
+            return hyp.length == 0 ? 0 : 1;
+        }
+
+        int[] prev = new int[hyp.length + 1];
+        int[] curr = new int[hyp.length + 1];
+        for (int j = 0; j <= hyp.length; j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= ref.length; i++) {
+            curr[0] = i;
+            for (int j = 1; j <= hyp.length; j++) {
+                int substitution = prev[j - 1] + (ref[i - 1].equals(hyp[j - 1]) ? 0 : 1);
+                curr[j] = Math.min(substitution, Math.min(prev[j] + 1, curr[j - 1] + 1));
+            }
+            int[] tmp = prev;
+            prev = curr;
+            curr = tmp;
+        }
+        return (double) prev[hyp.length] / ref.length;
+    }
+
+    private static String[] normalizeWords(String text) {
+        String cleaned = text.toLowerCase(Locale.US).replaceAll("[^\\p{L}\\p{N}' ]", " ").trim();
+        return cleaned.isEmpty() ? new String[0] : cleaned.split("\\s+");
+    }
+}
@@ -0,0 +1,25 @@
+// AudioSourceTest.java (in app/src/test/java/com/example/app/)
+package com.example.app;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class AudioSourceTest {
+
+    @Test
+    public void captureStopsAtTheCap() {
+        short[] samples = new short[4000]; // Longer than one 100ms read chunk
+        samples[2999] = 7;
+        short[] captured = new FakeAudioSource(samples).capture(3000);
+        assertEquals(3000, captured.length);
+        assertEquals(7, captured[2999]);
+    }
+
+    @Test
+    public void captureTrimsToWhatTheSourceHad() {
+        short[] captured = new FakeAudioSource((short) 1, (short) 2).capture(3000);
+        assertEquals(2, captured.length);
+        assertEquals(2, captured[1]);
+    }
+}
@@ -0,0 +1,94 @@
+// BatchTranscriberTest.java (in app/src/test/java/com/example/app/)
+package com.example.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+public class BatchTranscriberTest {
+    private static final int FRAME = 320; // 20ms at 16kHz
+    private static final int RATE = PcmFileReader.TARGET_SAMPLE_RATE;
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    // Raw 16kHz mono PCM: loud everywhere except silence over [quietStart, quietEnd).
+    private File writePcm(int samples, int quietStart, int quietEnd) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(samples * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < samples; i++) {
+            b.putShort(i >= quietStart && i < quietEnd ? 0 : (short) 16000);
+        }
+        File file = new File(tmp.getRoot(), "memo.pcm");
+        try (FileOutputStream os = new FileOutputStream(file)) {
+            os.write(b.array());
+        }
+        return file;
+    }
+
+    @Test
+    public void cutsInTheQuietestFrame() {
+        float[] samples = new float[FRAME * 10];
+        Arrays.fill(samples, 0.5f);
+        Arrays.fill(samples, FRAME * 6, FRAME * 7, 0.01f);
+        assertEquals(FRAME * 6 + FRAME / 2, BatchTranscriber.findQuietestPoint(samples, samples.length));
+    }
+
+    @Test
+    public void ignoresSamplesPastLength() {
+        float[] samples = new float[FRAME * 4];
+        Arrays.fill(samples, 0.5f);
+        Arrays.fill(samples, FRAME * 3, FRAME * 4, 0f);
+        Arrays.fill(samples, FRAME, FRAME * 2, 0.1f);
+        assertEquals(FRAME + FRAME / 2, BatchTranscriber.findQuietestPoint(samples, FRAME * 3));
+    }
+
+    @Test
+    public void tooShortForAFrameKeepsEverything() {
+        assertEquals(100, BatchTranscriber.findQuietestPoint(new float[100], 100));
+    }
+
+    @Test
+    public void cutInsideTheSearchTailWhenThereIsRoom() throws IOException {
+        // 40s memo, quiet at 29.0s: the cut lands there.
+        PcmFileReader reader = PcmFileReader.open(writePcm(RATE * 40, RATE * 29, RATE * 29 + FRAME));
+        float[] window = BatchTranscriber.readWindow(reader, 0);
+        assertEquals(RATE * 29 + FRAME / 2, window.length);
+    }
+
+    @Test
+    public void cutNeverLeavesARemainderUnderOneSecond() throws IOException {
+        // 30.5s memo whose quietest point (29.9s) would leave a 0.6s tail whisper.cpp skips.
+        int samples = RATE * 30 + RATE / 2;
+        PcmFileReader reader = PcmFileReader.open(writePcm(samples, RATE * 29 + RATE * 9 / 10, RATE * 30));
+        float[] window = BatchTranscriber.readWindow(reader, 0);
+        assertTrue(window.length <= RATE * BatchTranscriber.WINDOW_SECONDS);
+        assertTrue("remainder " + (samples - window.length),
+                samples - window.length >= BatchTranscriber.MIN_WINDOW_SAMPLES);
+
+        float[] rest = BatchTranscriber.readWindow(reader, window.length);
+        assertEquals(samples - window.length, rest.length);
+    }
+
+    @Test
+    public void padsWindowsShorterThanOneSecond() {
+        float[] window = {0.5f, -0.5f};
+        float[] padded = BatchTranscriber.padToMinimum(window);
+        assertEquals(BatchTranscriber.MIN_WINDOW_SAMPLES, padded.length);
+        assertEquals(0.5f, padded[0], 0f);
+        assertEquals(0f, padded[padded.length - 1], 0f);
+
+        float[] full = new float[BatchTranscriber.MIN_WINDOW_SAMPLES];
+        assertSame(full, BatchTranscriber.padToMinimum(full));
+    }
+}
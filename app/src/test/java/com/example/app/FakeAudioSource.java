@@ -0,0 +1,35 @@
+// FakeAudioSource.java (in app/src/test/java/com/example/app/)
+package com.example.app;
+
+/**
+ * AudioSource for tests: hands out a fixed set of samples, then reports end of stream.
+ */
+class FakeAudioSource implements AudioSource {
+    private final short[] samples;
+    private int position;
+
+    FakeAudioSource(short... samples) {
+        this.samples = samples;
+    }
+
+    @Override
+    public int getSampleRate() {
+        return 16000;
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public int read(short[] buffer, int offset, int length) {
+        int count = Math.min(length, samples.length - position);
+        System.arraycopy(samples, position, buffer, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public void release() {
+    }
+}
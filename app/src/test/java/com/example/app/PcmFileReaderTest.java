@@ -0,0 +1,152 @@
+// PcmFileReaderTest.java (in app/src/test/java/com/example/app/)
+package com.example.app;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class PcmFileReaderTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    // Writes a RIFF/WAVE file with the given fmt chunk body, an optional extra chunk, and data.
+    private File writeWav(String name, byte[] fmt, boolean extraChunk, byte[] data) throws IOException {
+        int size = 4 + 8 + fmt.length + (extraChunk ? 8 + 3 + 1 : 0) + 8 + data.length;
+        ByteBuffer b = ByteBuffer.allocate(8 + size).order(ByteOrder.LITTLE_ENDIAN);
+        b.put("RIFF".getBytes()).putInt(size).put("WAVE".getBytes());
+        b.put("fmt ".getBytes()).putInt(fmt.length).put(fmt);
+        if (extraChunk) {
+            b.put("LIST".getBytes()).putInt(3).put(new byte[]{1, 2, 3, 0}); // Odd size, padded
+        }
+        b.put("data".getBytes()).putInt(data.length).put(data);
+        File file = new File(tmp.getRoot(), name);
+        try (FileOutputStream os = new FileOutputStream(file)) {
+            os.write(b.array());
+        }
+        return file;
+    }
+
+    private static byte[] fmt(int format, int channels, int sampleRate, int bitsPerSample) {
+        int blockAlign = channels * bitsPerSample / 8;
+        return ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN)
+                .putShort((short) format).putShort((short) channels).putInt(sampleRate)
+                .putInt(sampleRate * blockAlign).putShort((short) blockAlign).putShort((short) bitsPerSample)
+                .array();
+    }
+
+    private static byte[] pcm16(short... samples) {
+        ByteBuffer b = ByteBuffer.allocate(samples.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (short s : samples) {
+            b.putShort(s);
+        }
+        return b.array();
+    }
+
+    private static float[] readAll(PcmFileReader reader) {
+        float[] out = new float[(int) reader.getSampleCount()];
+        assertEquals(out.length, reader.read(out, 0));
+        return out;
+    }
+
+    @Test
+    public void reads16BitMonoAndSkipsUnknownChunks() throws IOException {
+        File file = writeWav("a.wav", fmt(1, 1, 16000, 16), true, pcm16((short) 0, (short) 16384, (short) -32768));
+        PcmFileReader reader = PcmFileReader.open(file);
+        assertEquals(16000, reader.getSourceSampleRate());
+        assertEquals(3, reader.getSampleCount());
+        assertArrayEquals(new float[]{0f, 0.5f, -1f}, readAll(reader), 1e-6f);
+    }
+
+    @Test
+    public void reads8BitUnsigned() throws IOException {
+        File file = writeWav("b.wav", fmt(1, 1, 16000, 8), false, new byte[]{(byte) 128, (byte) 192, 0});
+        assertArrayEquals(new float[]{0f, 0.5f, -1f}, readAll(PcmFileReader.open(file)), 1e-6f);
+    }
+
+    @Test
+    public void readsFloat32() throws IOException {
+        byte[] data = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putFloat(0.25f).putFloat(-0.75f).array();
+        File file = writeWav("c.wav", fmt(3, 1, 16000, 32), false, data);
+        assertArrayEquals(new float[]{0.25f, -0.75f}, readAll(PcmFileReader.open(file)), 1e-6f);
+    }
+
+    @Test
+    public void downmixesStereo() throws IOException {
+        File file = writeWav("d.wav", fmt(1, 2, 16000, 16), false,
+                pcm16((short) 16384, (short) 0, (short) -16384, (short) -16384));
+        PcmFileReader reader = PcmFileReader.open(file);
+        assertEquals(2, reader.getSourceChannels());
+        assertArrayEquals(new float[]{0.25f, -0.5f}, readAll(reader), 1e-6f);
+    }
+
+    @Test
+    public void downsamplesByAveraging() throws IOException {
+        // 48kHz -> 16kHz averages each group of 3 frames; a Nyquist-rate tone averages out instead of aliasing.
+        File file = writeWav("e.wav", fmt(1, 1, 48000, 16), false,
+                pcm16((short) 3000, (short) 6000, (short) 9000, (short) 8192, (short) -8192, (short) 8192));
+        PcmFileReader reader = PcmFileReader.open(file);
+        assertEquals(2, reader.getSampleCount());
+        assertArrayEquals(new float[]{6000 / 32768f, 8192 / 3f / 32768f}, readAll(reader), 1e-6f);
+    }
+
+    @Test
+    public void upsamplesByInterpolation() throws IOException {
+        File file = writeWav("f.wav", fmt(1, 1, 8000, 16), false, pcm16((short) 0, (short) 16384));
+        assertArrayEquals(new float[]{0f, 0.25f, 0.5f, 0.5f}, readAll(PcmFileReader.open(file)), 1e-6f);
+    }
+
+    @Test
+    public void readsWindowsFromOffset() throws IOException {
+        File file = writeWav("g.wav", fmt(1, 1, 16000, 16), false, pcm16((short) 1, (short) 2, (short) 3));
+        PcmFileReader reader = PcmFileReader.open(file);
+        float[] window = new float[2];
+        assertEquals(1, reader.read(window, 2));
+        assertEquals(3 / 32768f, window[0], 1e-9f);
+        assertEquals(0, reader.read(window, 3));
+    }
+
+    @Test
+    public void rawPcmIs16kMono() throws IOException {
+        File file = new File(tmp.getRoot(), "h.pcm");
+        try (FileOutputStream os = new FileOutputStream(file)) {
+            os.write(pcm16((short) 16384, (short) -16384));
+        }
+        assertArrayEquals(new float[]{0.5f, -0.5f}, readAll(PcmFileReader.open(file)), 1e-6f);
+    }
+
+    @Test
+    public void rejectsShortFmtChunk() throws IOException {
+        byte[] legacy = new byte[14]; // WAVEFORMAT without wBitsPerSample
+        System.arraycopy(fmt(1, 1, 16000, 16), 0, legacy, 0, 14);
+        File file = writeWav("i.wav", legacy, false, pcm16((short) 0));
+        assertThrows(IOException.class, () -> PcmFileReader.open(file));
+    }
+
+    @Test
+    public void rejectsUnsupportedFormats() throws IOException {
+        File zeroBits = writeWav("j.wav", fmt(1, 1, 16000, 0), false, pcm16((short) 0));
+        assertThrows(IOException.class, () -> PcmFileReader.open(zeroBits));
+        File adpcm = writeWav("k.wav", fmt(2, 1, 16000, 4), false, pcm16((short) 0));
+        assertThrows(IOException.class, () -> PcmFileReader.open(adpcm));
+    }
+
+    @Test
+    public void rejectsNonRiffFiles() throws IOException {
+        File file = new File(tmp.getRoot(), "l.wav");
+        try (FileOutputStream os = new FileOutputStream(file)) {
+            os.write(new byte[64]);
+        }
+        assertThrows(IOException.class, () -> PcmFileReader.open(file));
+    }
+}
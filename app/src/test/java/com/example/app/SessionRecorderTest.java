@@ -0,0 +1,44 @@
+// SessionRecorderTest.java (in app/src/test/java/com/example/app/)
+package com.example.app;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+public class SessionRecorderTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void savedSessionReadsBack() throws IOException {
+        File file = new File(tmp.getRoot(), "session.wav");
+        SessionRecorder recorder = new SessionRecorder(new FakeAudioSource((short) 0, (short) 16384, (short) -16384), file);
+        recorder.start();
+        short[] captured = new short[8];
+        assertEquals(3, recorder.readFully(captured));
+        recorder.release();
+        recorder.release(); // Second release must not rewrite or truncate anything
+
+        assertEquals(44 + 6, file.length());
+        PcmFileReader reader = PcmFileReader.open(file);
+        float[] samples = new float[(int) reader.getSampleCount()];
+        reader.read(samples, 0);
+        assertArrayEquals(new float[]{0f, 0.5f, -0.5f}, samples, 1e-6f);
+    }
+
+    @Test
+    public void emptySessionIsStillAValidWav() throws IOException {
+        File file = new File(tmp.getRoot(), "empty.wav");
+        SessionRecorder recorder = new SessionRecorder(new FakeAudioSource(), file);
+        recorder.start();
+        recorder.release();
+        assertEquals(0, PcmFileReader.open(file).getSampleCount());
+    }
+}
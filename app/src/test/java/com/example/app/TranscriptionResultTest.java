@@ -0,0 +1,86 @@
+// TranscriptionResultTest.java (in app/src/test/java/com/example/app/)
+package com.example.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class TranscriptionResultTest {
+
+    // Two segments: " Buy milk." (tokens " Buy", " milk", ".") and " Café" (tokens " Caf", 0xC3, 0xA9),
+    // where the last character is split across two tokens as Whisper's BPE can do.
+    private static TranscriptionResult sample() {
+        byte[] segmentText = " Buy milk. Café".getBytes(StandardCharsets.UTF_8);
+        byte[] tokenText = " Buy milk. Café".getBytes(StandardCharsets.UTF_8);
+        return new TranscriptionResult(
+                segmentText,
+                new int[]{0, 10, segmentText.length},
+                new long[]{0, 1200, 1200, 2000},
+                new int[]{0, 3, 6},
+                tokenText,
+                new int[]{0, 4, 9, 10, 14, 15, 16},
+                new int[]{11, 12, 13, 14, 15, 16},
+                new float[]{0.9f, 0.8f, 0.7f, 0.2f, 0.3f, 0.1f},
+                new long[]{0, 400, 400, 900, 900, 1200, 1200, 1600, 1600, 1800, 1800, 2000});
+    }
+
+    @Test
+    public void segmentAccessors() {
+        TranscriptionResult result = sample();
+        assertEquals(2, result.getSegmentCount());
+        assertEquals(" Buy milk.", result.getSegmentText(0));
+        assertEquals(" Café", result.getSegmentText(1));
+        assertEquals(1200, result.getSegmentStartMs(1));
+        assertEquals(2000, result.getSegmentEndMs(1));
+        assertEquals(3, result.getSegmentFirstToken(1));
+        assertEquals(3, result.getSegmentTokenCount(1));
+    }
+
+    @Test
+    public void tokenAccessors() {
+        TranscriptionResult result = sample();
+        assertEquals(6, result.getTokenCount());
+        assertEquals(12, result.getTokenId(1));
+        assertEquals(" milk", result.getTokenText(1));
+        assertEquals(0.8f, result.getTokenProbability(1), 0f);
+        assertEquals(400, result.getTokenStartMs(1));
+        assertEquals(900, result.getTokenEndMs(1));
+    }
+
+    @Test
+    public void splitCharacterDecodesOnlyAsRange() {
+        TranscriptionResult result = sample();
+        assertNotEquals("é", result.getTokenText(4) + result.getTokenText(5));
+        assertEquals(" Café", result.getTokensText(3, 6));
+    }
+
+    @Test
+    public void confidenceIsMeanTokenProbability() {
+        TranscriptionResult result = sample();
+        assertEquals(0.8f, result.getSegmentConfidence(0), 1e-6f);
+        assertEquals(0.2f, result.getSegmentConfidence(1), 1e-6f);
+    }
+
+    @Test
+    public void textFilteredByConfidence() {
+        TranscriptionResult result = sample();
+        assertEquals(" Buy milk. Café", result.getText());
+        assertEquals(" Buy milk.", result.getText(0.5f));
+        assertEquals("", result.getText(0.95f));
+    }
+
+    @Test
+    public void emptyResult() {
+        TranscriptionResult result = new TranscriptionResult(new byte[0], new int[]{0}, new long[0], new int[]{0},
+                new byte[0], new int[]{0}, new int[0], new float[0], new long[0]);
+        assertTrue(result.isEmpty());
+        assertEquals(0, result.getSegmentCount());
+        assertEquals(0, result.getTokenCount());
+        assertFalse(sample().isEmpty());
+    }
+}
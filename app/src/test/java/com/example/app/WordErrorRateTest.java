@@ -0,0 +1,39 @@
+// WordErrorRateTest.java (in app/src/test/java/com/example/app/)
+package com.example.app;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class WordErrorRateTest {
+
+    @Test
+    public void identicalIgnoringCaseAndPunctuation() {
+        assertEquals(0.0, WordErrorRate.of("Buy milk and eggs.", " buy milk, and EGGS"), 1e-9);
+    }
+
+    @Test
+    public void countsSubstitutionsInsertionsAndDeletions() {
+        assertEquals(0.25, WordErrorRate.of("buy milk and eggs", "buy silk and eggs"), 1e-9);
+        assertEquals(0.25, WordErrorRate.of("buy milk and eggs", "buy the milk and eggs"), 1e-9);
+        assertEquals(0.5, WordErrorRate.of("buy milk and eggs", "buy eggs"), 1e-9);
+    }
+
+    @Test
+    public void canExceedOne() {
+        assertEquals(3.0, WordErrorRate.of("hi", "oh hello there"), 1e-9);
+    }
+
+    @Test
+    public void emptyTranscripts() {
+        assertEquals(0.0, WordErrorRate.of("", "  "), 1e-9);
+        assertEquals(1.0, WordErrorRate.of("...", "noise"), 1e-9);
+        assertEquals(1.0, WordErrorRate.of("call mom", ""), 1e-9);
+    }
+
+    @Test
+    public void keepsApostrophesAndNonAsciiLetters() {
+        assertEquals(0.0, WordErrorRate.of("Don't forget the café", "don't forget the Café!"), 1e-9);
+        assertEquals(0.5, WordErrorRate.of("don't go", "dont go"), 1e-9);
+    }
+}